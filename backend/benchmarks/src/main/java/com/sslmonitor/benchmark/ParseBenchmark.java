@@ -0,0 +1,101 @@
+package com.sslmonitor.benchmark;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.service.AbstractCertificateProber;
+import com.sslmonitor.service.CertificateCheckResult;
+import com.sslmonitor.service.CertificateService;
+import com.sslmonitor.service.CheckMetrics;
+import com.sslmonitor.service.DomainResolver;
+import com.sslmonitor.service.ProberSslContext;
+import com.sslmonitor.service.StaticHostLookup;
+import com.sslmonitor.support.LoopbackTlsServer;
+import com.sslmonitor.support.ProbeTestSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不涉及网络的 CPU 部分：域名清洗、证书解析为检查结果、结果写回实体
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    private static final String RAW_DOMAIN = "  HTTPS://www.Example.com:443/path/to/page?query=1  ";
+    private static final String KEYSTORE_PASSWORD = "benchmark";
+
+    private ParsingProber prober;
+    private Certificate[] certificates;
+    private CertificateCheckResult result;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path keyStorePath = LoopbackTlsServer.generateKeyStore(KEYSTORE_PASSWORD);
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keyStorePath)) {
+            keyStore.load(in, KEYSTORE_PASSWORD.toCharArray());
+        }
+        certificates = keyStore.getCertificateChain("server");
+        CheckMetrics metrics = ProbeTestSupport.metrics();
+        DomainResolver resolver = ProbeTestSupport.resolver(
+            new StaticHostLookup().add("localhost", InetAddress.getLoopbackAddress()), metrics);
+        prober = new ParsingProber(ProbeTestSupport.sslContext(), resolver, metrics);
+        result = prober.parse(certificates);
+    }
+
+    @Benchmark
+    public String cleanDomainName() {
+        return CertificateService.cleanDomainName(RAW_DOMAIN);
+    }
+
+    @Benchmark
+    public CertificateCheckResult buildResult() {
+        return prober.parse(certificates);
+    }
+
+    @Benchmark
+    public Domain applyResult() {
+        Domain domain = new Domain();
+        domain.setDomainName("localhost");
+        result.applyTo(domain);
+        return domain;
+    }
+
+    // 只为调用 buildResult，不做网络探测
+    private static class ParsingProber extends AbstractCertificateProber {
+
+        ParsingProber(ProberSslContext sslContext, DomainResolver resolver, CheckMetrics metrics) {
+            super(sslContext, resolver, metrics);
+        }
+
+        CertificateCheckResult parse(Certificate[] certs) {
+            return buildResult("localhost", certs);
+        }
+
+        @Override
+        public CertificateCheckResult probeEndpoint(String host, InetAddress address, int port, String startTls,
+                                                    int timeoutMs) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.sslmonitor.benchmark;
+
+import com.sslmonitor.SSLMonitorApplication;
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.repository.DomainRepository;
+import com.sslmonitor.service.DomainBatchWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 检查结果写库：逐条 save 与 DomainBatchWriter 批量写入的对比，使用内存 H2。
+ * 启动完整的 Spring 上下文（不含 Web），定时任务使用固定模式且不会在测量期间触发。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"500"})
+    private int domainCount;
+
+    private ConfigurableApplicationContext context;
+    private DomainRepository domainRepository;
+    private DomainBatchWriter batchWriter;
+    private List<Domain> domains;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 不依赖本地的 application-config.properties，所需占位配置全部从命令行参数传入
+        context = new SpringApplicationBuilder(SSLMonitorApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .run("--spring.config.on-not-found=ignore",
+                "--database.url=jdbc:h2:mem:sslmonitor-bench;DB_CLOSE_DELAY=-1",
+                "--database.driver=org.h2.Driver",
+                "--database.username=sa",
+                "--database.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--server.port=0",
+                "--mail.host=localhost",
+                "--mail.port=25",
+                "--mail.username=bench@localhost",
+                "--mail.password=",
+                "--mail.protocol=smtp",
+                "--mail.charset=utf-8",
+                "--mail.smtp.ssl.enable=false",
+                "--mail.smtp.starttls.enable=false",
+                "--mail.notification.enabled=false",
+                "--certificate.schedule.mode=fixed",
+                "--logging.level.root=WARN");
+        domainRepository = context.getBean(DomainRepository.class);
+        batchWriter = context.getBean(DomainBatchWriter.class);
+
+        domainRepository.deleteAll();
+        List<Domain> seed = new ArrayList<>(domainCount);
+        for (int i = 0; i < domainCount; i++) {
+            Domain domain = new Domain();
+            domain.setDomainName("bench-" + i + ".example.com");
+            domain.setNotificationEmail("ops@example.com");
+            seed.add(domain);
+        }
+        domains = domainRepository.saveAll(seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void touch() {
+        // 模拟一轮检查后的结果
+        LocalDateTime now = LocalDateTime.now();
+        for (Domain domain : domains) {
+            domain.setLastChecked(now);
+            domain.setCertificateStatus("VALID");
+            domain.setCertificateExpiryDate(now.plusDays(60));
+            domain.setNextCheckAt(now.plusHours(12));
+        }
+    }
+
+    @Benchmark
+    public int saveEach() {
+        for (Domain domain : domains) {
+            domainRepository.save(domain);
+        }
+        return domains.size();
+    }
+
+    @Benchmark
+    public int batchWrite() {
+        batchWriter.write(domains);
+        return domains.size();
+    }
+}
@@ -0,0 +1,146 @@
+package com.sslmonitor.benchmark;
+
+import com.sslmonitor.service.CertificateCheckResult;
+import com.sslmonitor.service.CheckMetrics;
+import com.sslmonitor.service.DomainResolver;
+import com.sslmonitor.service.NioCertificateProber;
+import com.sslmonitor.service.ProberSslContext;
+import com.sslmonitor.service.SocketCertificateProber;
+import com.sslmonitor.service.StaticHostLookup;
+import com.sslmonitor.support.LoopbackTlsServer;
+import com.sslmonitor.support.ProbeTestSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 针对本地回环 TLS 服务端的一次完整探测（DNS、连接、握手、证书解析），
+ * 比较阻塞 Socket 与 NIO 两种实现，以及创建 SSLContext 的开销。
+ * perProbeContextHandshake 保留共享 SSLContext 之前的写法（每次探测新建 SSLContext 与 SecureRandom），
+ * 与 sharedContextHandshake 对比连接加握手的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProbeBenchmark {
+
+    private static final String KEYSTORE_PASSWORD = "benchmark";
+    private static final String[] ENABLED_PROTOCOLS = {"TLSv1.2", "TLSv1.3"};
+    private static final int TIMEOUT_MS = 10000;
+
+    private LoopbackTlsServer server;
+    private ProberSslContext sslContext;
+    private DomainResolver resolver;
+    private SocketCertificateProber socketProber;
+    private NioCertificateProber nioProber;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path keyStore = LoopbackTlsServer.generateKeyStore(KEYSTORE_PASSWORD);
+        server = new LoopbackTlsServer(keyStore, KEYSTORE_PASSWORD);
+        port = server.getPort();
+
+        sslContext = ProbeTestSupport.sslContext();
+        CheckMetrics metrics = ProbeTestSupport.metrics();
+        // 只连接本机，用固定映射代替真实 DNS
+        resolver = ProbeTestSupport.resolver(
+            new StaticHostLookup().add("localhost", InetAddress.getLoopbackAddress()), metrics);
+        socketProber = new SocketCertificateProber(sslContext, resolver, metrics);
+        nioProber = new NioCertificateProber(sslContext, resolver, metrics);
+        ReflectionTestUtils.setField(nioProber, "selectorThreads", 2);
+        nioProber.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        nioProber.shutdown();
+        resolver.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public CertificateCheckResult socketProbe() {
+        return socketProber.probe("localhost", port);
+    }
+
+    @Benchmark
+    public CertificateCheckResult nioProbe() {
+        return nioProber.probe("localhost", port);
+    }
+
+    @Benchmark
+    public ProberSslContext sslContextInit() throws Exception {
+        return ProbeTestSupport.sslContext();
+    }
+
+    @Benchmark
+    public Certificate[] sharedContextHandshake() throws Exception {
+        try (Socket socket = connect();
+             SSLSocket sslSocket = sslContext.createSocket(socket, "localhost", port)) {
+            sslSocket.startHandshake();
+            Certificate[] certs = sslSocket.getSession().getPeerCertificates();
+            sslContext.discard(sslSocket.getSession());
+            return certs;
+        }
+    }
+
+    @Benchmark
+    public Certificate[] perProbeContextHandshake() throws Exception {
+        SSLContext context = createTrustAllSSLContext();
+        try (Socket socket = connect();
+             SSLSocket sslSocket = (SSLSocket) context.getSocketFactory().createSocket(socket, "localhost", port, true)) {
+            sslSocket.setEnabledProtocols(ENABLED_PROTOCOLS);
+            sslSocket.startHandshake();
+            return sslSocket.getSession().getPeerCertificates();
+        }
+    }
+
+    private Socket connect() throws Exception {
+        Socket socket = new Socket();
+        socket.setSoTimeout(TIMEOUT_MS);
+        socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), TIMEOUT_MS);
+        return socket;
+    }
+
+    // 共享 SSLContext 之前每次探测执行的初始化
+    private static SSLContext createTrustAllSSLContext() throws GeneralSecurityException {
+        SSLContext context = SSLContext.getInstance("TLS");
+        TrustManager[] trustAllCerts = new TrustManager[]{
+            new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+                public void checkClientTrusted(X509Certificate[] certs, String authType) {}
+                public void checkServerTrusted(X509Certificate[] certs, String authType) {}
+            }
+        };
+        context.init(null, trustAllCerts, new SecureRandom());
+        return context;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sslmonitor.benchmark;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.service.EmailTemplateRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 到期提醒邮件渲染：预编译片段拼接 与 每次经过 Thymeleaf 模板引擎 的对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    @Param({EmailTemplateRenderer.EXPIRY_TEMPLATE, EmailTemplateRenderer.URGENT_TEMPLATE})
+    private String template;
+
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+    private Domain domain;
+    private int daysUntilExpiry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 与 Spring Boot 默认配置一致：SpEL 方言，classpath:/templates/*.html，开启模板缓存
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        renderer = new EmailTemplateRenderer(templateEngine);
+        renderer.init();
+
+        domain = new Domain();
+        domain.setDomainName("www.example.com");
+        domain.setCertificateExpiryDate(LocalDateTime.now().plusDays(5));
+        domain.setNotificationEmail("ops@example.com");
+        daysUntilExpiry = 5;
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return renderer.render(template, domain, daysUntilExpiry);
+    }
+
+    @Benchmark
+    public String templateEngine() {
+        Context context = new Context();
+        context.setVariable("domain", domain);
+        context.setVariable("daysUntilExpiry", daysUntilExpiry);
+        context.setVariable("expiryDate", domain.getCertificateExpiryDate());
+        context.setVariable("isUrgent", daysUntilExpiry <= 7);
+        return templateEngine.process(template, context);
+    }
+}
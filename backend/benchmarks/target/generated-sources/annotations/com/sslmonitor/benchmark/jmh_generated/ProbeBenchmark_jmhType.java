@@ -0,0 +1,4 @@
+package com.sslmonitor.benchmark.jmh_generated;
+public class ProbeBenchmark_jmhType extends ProbeBenchmark_jmhType_B3 {
+}
+
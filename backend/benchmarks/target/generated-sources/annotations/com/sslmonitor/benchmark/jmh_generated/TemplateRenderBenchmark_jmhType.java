@@ -0,0 +1,4 @@
+package com.sslmonitor.benchmark.jmh_generated;
+public class TemplateRenderBenchmark_jmhType extends TemplateRenderBenchmark_jmhType_B3 {
+}
+
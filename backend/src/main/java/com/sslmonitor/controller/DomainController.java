@@ -1,20 +1,52 @@
 package com.sslmonitor.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sslmonitor.dto.DashboardSummary;
+import com.sslmonitor.dto.DomainSummary;
+import com.sslmonitor.dto.ImportSummary;
 import com.sslmonitor.model.Domain;
-import com.sslmonitor.service.CertificateService;
+import com.sslmonitor.service.CertificateChainService;
+import com.sslmonitor.service.CheckHistoryRecorder;
+import com.sslmonitor.service.CheckHistoryService;
+import com.sslmonitor.service.CheckJob;
+import com.sslmonitor.service.CheckJobService;
+import com.sslmonitor.service.DashboardService;
+import com.sslmonitor.service.DomainChangeFeedService;
+import com.sslmonitor.service.DomainEventBus;
+import com.sslmonitor.service.DomainImportService;
+import com.sslmonitor.service.DomainListingService;
+import com.sslmonitor.service.DomainResolver;
+import com.sslmonitor.service.DomainStatusCache;
 import com.sslmonitor.service.EmailService;
+import com.sslmonitor.service.ProbeCircuitBreaker;
 import com.sslmonitor.repository.DomainRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -24,27 +56,171 @@ import java.time.temporal.ChronoUnit;
 public class DomainController {
 
     private final DomainRepository domainRepository;
-    private final CertificateService certificateService;
     private final EmailService emailService;
+    private final DomainListingService domainListingService;
+    private final DomainStatusCache statusCache;
+    private final CheckJobService checkJobService;
+    private final DomainImportService domainImportService;
+    private final DomainResolver domainResolver;
+    private final ProbeCircuitBreaker circuitBreaker;
+    private final CheckHistoryService historyService;
+    private final CheckHistoryRecorder historyRecorder;
+    private final CertificateChainService chainService;
+    private final DashboardService dashboardService;
+    private final DomainChangeFeedService changeFeedService;
+    private final DomainEventBus eventBus;
+    private final ObjectMapper objectMapper;
 
-    public DomainController(DomainRepository domainRepository, CertificateService certificateService, EmailService emailService) {
+    private static final String EXPORT_CSV_HEADER = "id,domainName,certificateStatus,certificateExpiryDate," +
+        "lastChecked,nextCheckAt,autoRenewal,notificationEmail\n";
+
+    // 检查在这个时间内完成则直接返回结果，否则返回202和任务信息，由客户端轮询或订阅事件
+    @Value("${certificate.jobs.sync-wait-ms:5000}")
+    private long syncWaitMs;
+
+    public DomainController(DomainRepository domainRepository, EmailService emailService,
+                            DomainListingService domainListingService, DomainStatusCache statusCache,
+                            CheckJobService checkJobService, DomainImportService domainImportService,
+                            DomainResolver domainResolver, ProbeCircuitBreaker circuitBreaker,
+                            CheckHistoryService historyService, CheckHistoryRecorder historyRecorder,
+                            CertificateChainService chainService, DashboardService dashboardService,
+                            DomainChangeFeedService changeFeedService, DomainEventBus eventBus,
+                            ObjectMapper objectMapper) {
         this.domainRepository = domainRepository;
-        this.certificateService = certificateService;
         this.emailService = emailService;
+        this.domainListingService = domainListingService;
+        this.statusCache = statusCache;
+        this.checkJobService = checkJobService;
+        this.domainImportService = domainImportService;
+        this.domainResolver = domainResolver;
+        this.circuitBreaker = circuitBreaker;
+        this.historyService = historyService;
+        this.historyRecorder = historyRecorder;
+        this.chainService = chainService;
+        this.dashboardService = dashboardService;
+        this.changeFeedService = changeFeedService;
+        this.eventBus = eventBus;
+        this.objectMapper = objectMapper;
     }
 
+    // 没有变化时返回304；ETag 要在读取列表之前取得
     @GetMapping
-    public List<Domain> getAllDomains() {
-        return domainRepository.findAll();
+    public ResponseEntity<List<DomainSummary>> getAllDomains(WebRequest webRequest) {
+        String etag = changeFeedService.listEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(statusCache.getAll(domainRepository::findAllSummaries));
+    }
+
+    // 增量拉取：返回 since 之后新增、修改和删除的域名，resync 为 true 时客户端需要重新拉取完整列表
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since,
+                                        @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(changeFeedService.changesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    // 仪表盘汇总，由数据库聚合计算并短暂缓存，不需要下载全部域名
+    @GetMapping("/summary")
+    public DashboardSummary getSummary() {
+        return dashboardService.getSummary();
+    }
+
+    // 实时推送检查结果（check）和 sweep 进度（sweep），替代轮询列表接口
+    @GetMapping(value = "/events", produces = "text/event-stream")
+    public ResponseEntity<?> streamEvents() {
+        try {
+            return ResponseEntity.ok(eventBus.subscribe());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/events/stats")
+    public Map<String, Object> getEventStats() {
+        return eventBus.stats();
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        return statusCache.stats();
+    }
+
+    @GetMapping("/resolver/stats")
+    public Map<String, Object> getResolverStats() {
+        return domainResolver.stats();
+    }
+
+    @GetMapping("/circuit/stats")
+    public Map<String, Object> getCircuitStats() {
+        return circuitBreaker.stats();
+    }
+
+    @GetMapping("/history/stats")
+    public Map<String, Object> getHistoryStats() {
+        return historyRecorder.stats();
+    }
+
+    // 检查历史：时间范围为 [from, to)，ISO 格式，默认最近30天，最新的在前
+    @GetMapping("/{id}/history")
+    public ResponseEntity<?> getCheckHistory(@PathVariable Long id,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             @RequestParam(required = false) Integer limit) {
+        if (!domainRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(historyService.findHistory(id, from, to, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    // 最近一次检查拿到的完整证书链（服务端证书在前），从保存的DER解析，不重新探测
+    @GetMapping("/{id}/chain")
+    public ResponseEntity<?> getCertificateChain(@PathVariable Long id) {
+        return domainRepository.findById(id)
+            .<ResponseEntity<?>>map(domain -> ResponseEntity.ok(chainService.describeChain(domain)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 分页列表：不返回证书详情，使用 nextCursor 获取下一页
+    @GetMapping("/page")
+    public ResponseEntity<?> listDomains(@RequestParam(required = false) String status,
+                                         @RequestParam(required = false) Integer minDaysLeft,
+                                         @RequestParam(required = false) Integer maxDaysLeft,
+                                         @RequestParam(required = false) String namePrefix,
+                                         @RequestParam(defaultValue = DomainListingService.SORT_NAME) String sort,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size,
+                                         WebRequest webRequest) {
+        try {
+            String etag = changeFeedService.listEtag();
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(etag).body(domainListingService.list(status, minDaysLeft, maxDaysLeft,
+                namePrefix, sort, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        }
     }
 
     @PostMapping
-    public ResponseEntity<?> addDomain(@Valid @RequestBody Domain domain) {
+    public DeferredResult<ResponseEntity<?>> addDomain(@Valid @RequestBody Domain domain) {
         try {
             log.info("Adding new domain: {}", domain);
             if (domain.getDomainName() == null || domain.getDomainName().trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(createErrorResponse("Domain name cannot be empty"));
+                return completed(ResponseEntity.badRequest()
+                    .body(createErrorResponse("Domain name cannot be empty")));
             }
 
             // 清理域名格式
@@ -53,20 +229,91 @@ public class DomainController {
 
             // 检查域名是否已存在
             if (domainRepository.findByDomainName(cleanDomainName).isPresent()) {
-                return ResponseEntity.badRequest()
-                    .body(createErrorResponse("Domain already exists"));
+                return completed(ResponseEntity.badRequest()
+                    .body(createErrorResponse("Domain already exists")));
             }
 
             Domain savedDomain = domainRepository.save(domain);
-            Domain checkedDomain = certificateService.checkCertificate(cleanDomainName);
-            return ResponseEntity.ok(checkedDomain);
+            statusCache.put(savedDomain);
+            return awaitCheck(cleanDomainName);
         } catch (Exception e) {
             log.error("Error adding domain: " + domain.getDomainName(), e);
-            return ResponseEntity.internalServerError()
-                .body(createErrorResponse("Failed to add domain: " + e.getMessage()));
+            return completed(ResponseEntity.internalServerError()
+                .body(createErrorResponse("Failed to add domain: " + e.getMessage())));
         }
     }
 
+    // 流式导出：过滤条件与分页列表相同，按域名顺序逐行输出 NDJSON 或 CSV，不在内存中拼出完整列表
+    @GetMapping("/export")
+    public void exportDomains(@RequestParam(defaultValue = DomainImportService.FORMAT_NDJSON) String format,
+                              @RequestParam(required = false) String status,
+                              @RequestParam(required = false) Integer minDaysLeft,
+                              @RequestParam(required = false) Integer maxDaysLeft,
+                              @RequestParam(required = false) String namePrefix,
+                              HttpServletResponse response) throws IOException {
+        boolean csv = DomainImportService.FORMAT_CSV.equals(format);
+        if (!csv && !DomainImportService.FORMAT_NDJSON.equals(format)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported format: " + format);
+            return;
+        }
+
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"domains." + format + "\"");
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        if (csv) {
+            out.write(EXPORT_CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long count = domainListingService.export(status, minDaysLeft, maxDaysLeft, namePrefix, row -> {
+            try {
+                if (csv) {
+                    out.write(toCsvLine(row).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+        log.debug("Exported {} domains as {}", count, format);
+    }
+
+    /**
+     * 批量导入：请求体为 CSV（domainName,notificationEmail,autoRenewal）或 NDJSON，逐行读取。
+     * 响应为 NDJSON，每行一个处理结果，最后一行为汇总；新域名由检查调度器在下一次轮询时安排首次检查。
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/x-ndjson"})
+    public void importDomains(@RequestParam(required = false) String format,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String importFormat = format;
+        if (importFormat == null) {
+            String contentType = request.getContentType();
+            importFormat = contentType != null && contentType.contains("ndjson")
+                ? DomainImportService.FORMAT_NDJSON : DomainImportService.FORMAT_CSV;
+        }
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+
+        ImportSummary summary = domainImportService.importDomains(reader, importFormat, row -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.write(objectMapper.writeValueAsBytes(Map.of("summary", summary)));
+        out.write('\n');
+        out.flush();
+    }
+
     private String cleanDomainName(String domainName) {
         if (domainName == null) return null;
         // 移除前后空格
@@ -83,8 +330,8 @@ public class DomainController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteDomain(@PathVariable Long id) {
         try {
-            if (domainRepository.existsById(id)) {
-                domainRepository.deleteById(id);
+            if (changeFeedService.deleteDomain(id)) {
+                statusCache.evict(id);
                 return ResponseEntity.ok().build();
             }
             return ResponseEntity.notFound().build();
@@ -101,7 +348,9 @@ public class DomainController {
             return domainRepository.findById(id)
                 .map(domain -> {
                     domain.setAutoRenewal(!domain.isAutoRenewal());
-                    return ResponseEntity.ok(domainRepository.save(domain));
+                    Domain savedDomain = domainRepository.save(domain);
+                    statusCache.put(savedDomain);
+                    return ResponseEntity.ok(savedDomain);
                 })
                 .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
@@ -112,18 +361,33 @@ public class DomainController {
     }
 
     @PostMapping("/{id}/check")
-    public ResponseEntity<?> checkCertificate(@PathVariable Long id) {
+    public DeferredResult<ResponseEntity<?>> checkCertificate(@PathVariable Long id) {
         try {
             return domainRepository.findById(id)
-                .map(domain -> ResponseEntity.ok(certificateService.checkCertificate(domain.getDomainName())))
-                .orElse(ResponseEntity.notFound().build());
+                .map(domain -> awaitCheck(domain.getDomainName()))
+                .orElseGet(() -> completed(ResponseEntity.notFound().build()));
         } catch (Exception e) {
             log.error("Error checking certificate for domain id: " + id, e);
-            return ResponseEntity.internalServerError()
-                .body(createErrorResponse("Failed to check certificate: " + e.getMessage()));
+            return completed(ResponseEntity.internalServerError()
+                .body(createErrorResponse("Failed to check certificate: " + e.getMessage())));
         }
     }
 
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getCheckJob(@PathVariable String jobId) {
+        return checkJobService.find(jobId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 任务完成时推送 result 事件
+    @GetMapping(value = "/jobs/{jobId}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> streamCheckJob(@PathVariable String jobId) {
+        return checkJobService.find(jobId)
+            .map(job -> ResponseEntity.ok(checkJobService.subscribe(job)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{id}/send-notification")
     public ResponseEntity<?> sendNotification(@PathVariable Long id) {
         try {
@@ -150,7 +414,7 @@ public class DomainController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateDomain(@PathVariable Long id, @Valid @RequestBody Domain domain) {
+    public DeferredResult<ResponseEntity<?>> updateDomain(@PathVariable Long id, @Valid @RequestBody Domain domain) {
         try {
             return domainRepository.findById(id)
                 .map(existingDomain -> {
@@ -159,24 +423,76 @@ public class DomainController {
                     // 如果域名变更，检查新域名是否已存在
                     if (!existingDomain.getDomainName().equals(cleanDomainName) &&
                         domainRepository.findByDomainName(cleanDomainName).isPresent()) {
-                        return ResponseEntity.badRequest()
-                            .body(createErrorResponse("Domain already exists"));
+                        return completed(ResponseEntity.badRequest()
+                            .body(createErrorResponse("Domain already exists")));
                     }
                     
                     existingDomain.setDomainName(cleanDomainName);
                     existingDomain.setNotificationEmail(domain.getNotificationEmail());
                     existingDomain.setAutoRenewal(domain.isAutoRenewal());
+                    // 请求中没有 endpoints 字段时保留原有配置
+                    if (domain.getEndpoints() != null) {
+                        existingDomain.setEndpoints(domain.getEndpoints());
+                    }
                     
                     Domain savedDomain = domainRepository.save(existingDomain);
-                    Domain checkedDomain = certificateService.checkCertificate(cleanDomainName);
-                    return ResponseEntity.ok(checkedDomain);
+                    statusCache.put(savedDomain);
+                    return awaitCheck(cleanDomainName);
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElseGet(() -> completed(ResponseEntity.notFound().build()));
         } catch (Exception e) {
             log.error("Error updating domain with id: " + id, e);
-            return ResponseEntity.internalServerError()
-                .body(createErrorResponse("Failed to update domain: " + e.getMessage()));
+            return completed(ResponseEntity.internalServerError()
+                .body(createErrorResponse("Failed to update domain: " + e.getMessage())));
+        }
+    }
+
+    // 提交检查任务，不占用请求线程；超过 syncWaitMs 仍未完成时返回202和任务信息
+    private DeferredResult<ResponseEntity<?>> awaitCheck(String domainName) {
+        CheckJob job;
+        try {
+            job = checkJobService.submit(domainName);
+        } catch (RejectedExecutionException e) {
+            return completed(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(createErrorResponse("Too many pending certificate checks, please retry later")));
+        }
+
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(syncWaitMs);
+        result.onTimeout(() -> result.setResult(ResponseEntity.accepted().body(job)));
+        job.completion().whenComplete((checkedDomain, ex) -> {
+            if (ex == null) {
+                result.setResult(ResponseEntity.ok(checkedDomain));
+            } else {
+                result.setResult(ResponseEntity.internalServerError()
+                    .body(createErrorResponse("Failed to check certificate: " + ex.getMessage())));
+            }
+        });
+        return result;
+    }
+
+    private DeferredResult<ResponseEntity<?>> completed(ResponseEntity<?> response) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
+
+    private static String toCsvLine(DomainSummary row) {
+        return row.getId() + "," + csvField(row.getDomainName()) + "," + csvField(row.getCertificateStatus()) + ","
+            + csvField(row.getCertificateExpiryDate()) + "," + csvField(row.getLastChecked()) + ","
+            + csvField(row.getNextCheckAt()) + "," + row.isAutoRenewal() + ","
+            + csvField(row.getNotificationEmail()) + "\n";
+    }
+
+    // 含逗号、引号或换行的字段加引号，内部引号加倍
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
         }
+        return '"' + text.replace("\"", "\"\"") + '"';
     }
 
     private Map<String, String> createErrorResponse(String message) {
@@ -190,4 +506,4 @@ public class DomainController {
         response.put("message", message);
         return response;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
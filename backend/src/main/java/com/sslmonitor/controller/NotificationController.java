@@ -0,0 +1,27 @@
+package com.sslmonitor.controller;
+
+import com.sslmonitor.service.NotificationDispatcher;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+@CrossOrigin(origins = "*")
+public class NotificationController {
+
+    private final NotificationDispatcher notificationDispatcher;
+
+    public NotificationController(NotificationDispatcher notificationDispatcher) {
+        this.notificationDispatcher = notificationDispatcher;
+    }
+
+    // 队列深度、发送耗时和失败次数
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return notificationDispatcher.stats();
+    }
+}
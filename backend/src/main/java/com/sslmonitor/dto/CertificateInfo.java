@@ -0,0 +1,30 @@
+package com.sslmonitor.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 证书链中一张证书的结构化信息，由保存的DER原文解析得到。
+ * 原文尚未写入（检查刚完成）时只有 fingerprint，available 为 false。
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CertificateInfo {
+    private String fingerprint;
+    private boolean available;
+    private String subject;
+    private String issuer;
+    private String serialNumber;
+    private LocalDateTime notBefore;
+    private LocalDateTime notAfter;
+    private Long daysUntilExpiry;
+    private List<String> subjectAltNames;
+    private String keyType;
+    private Integer keySize;
+    private String signatureAlgorithm;
+    private Boolean ca;
+    private Boolean selfSigned;
+}
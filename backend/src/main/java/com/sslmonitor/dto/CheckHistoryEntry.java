@@ -0,0 +1,22 @@
+package com.sslmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 检查历史查询返回的一行，证书只带指纹和到期时间
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckHistoryEntry {
+    private LocalDateTime checkedAt;
+    private String status;
+    private Integer latencyMs;
+    private String errorClass;
+    private String fingerprint;
+    private LocalDateTime certificateExpiryDate;
+}
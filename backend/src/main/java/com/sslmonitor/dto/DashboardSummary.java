@@ -0,0 +1,46 @@
+package com.sslmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 仪表盘汇总：状态计数、剩余天数分布、签发者分布和最早到期的域名
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummary {
+    private long total;
+    private Map<String, Long> statusCounts;
+    private List<ExpiryBucket> expiryBuckets;
+    private List<IssuerCount> issuers;
+    private List<DomainSummary> soonestExpiries;
+    private LocalDateTime generatedAt;
+
+    /**
+     * 剩余天数在 [minDays, maxDays) 内的域名数；minDays 为空表示已过期，maxDays 为空表示没有上限，
+     * 两者都为空表示还没有到期时间
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExpiryBucket {
+        private String label;
+        private Integer minDays;
+        private Integer maxDays;
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IssuerCount {
+        private String issuer;
+        private long count;
+    }
+}
@@ -0,0 +1,23 @@
+package com.sslmonitor.dto;
+
+import com.sslmonitor.model.Domain;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 增量拉取的一页：自上次 token 以来变更的域名和被删除的域名ID。
+ * resync 为 true 时客户端需要重新拉取完整列表，然后用 nextToken 继续增量拉取。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainChangePage {
+    private List<Domain> changes;
+    private List<Long> deleted;
+    private String nextToken;
+    private boolean hasMore;
+    private boolean resync;
+}
@@ -0,0 +1,19 @@
+package com.sslmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果：nextCursor 为空表示已经是最后一页
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainPage {
+    private List<DomainSummary> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
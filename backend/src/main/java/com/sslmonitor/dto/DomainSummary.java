@@ -0,0 +1,31 @@
+package com.sslmonitor.dto;
+
+import com.sslmonitor.model.Domain;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 域名列表使用的轻量投影，不包含 certificateDetails
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainSummary {
+    private Long id;
+    private String domainName;
+    private LocalDateTime certificateExpiryDate;
+    private String certificateStatus;
+    private LocalDateTime lastChecked;
+    private LocalDateTime nextCheckAt;
+    private boolean autoRenewal;
+    private String notificationEmail;
+
+    public static DomainSummary from(Domain domain) {
+        return new DomainSummary(domain.getId(), domain.getDomainName(), domain.getCertificateExpiryDate(),
+            domain.getCertificateStatus(), domain.getLastChecked(), domain.getNextCheckAt(),
+            domain.isAutoRenewal(), domain.getNotificationEmail());
+    }
+}
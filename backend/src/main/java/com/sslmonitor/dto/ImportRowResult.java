@@ -0,0 +1,23 @@
+package com.sslmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量导入中单行的处理结果：CREATED / DUPLICATE / INVALID / FAILED
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowResult {
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private long line;
+    private String domainName;
+    private String status;
+    private String message;
+}
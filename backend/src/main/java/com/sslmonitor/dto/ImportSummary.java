@@ -0,0 +1,25 @@
+package com.sslmonitor.dto;
+
+import lombok.Data;
+
+/**
+ * 批量导入的汇总统计
+ */
+@Data
+public class ImportSummary {
+    private long total;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+
+    public void count(ImportRowResult row) {
+        total++;
+        switch (row.getStatus()) {
+            case ImportRowResult.CREATED -> created++;
+            case ImportRowResult.DUPLICATE -> duplicates++;
+            case ImportRowResult.INVALID -> invalid++;
+            default -> failed++;
+        }
+    }
+}
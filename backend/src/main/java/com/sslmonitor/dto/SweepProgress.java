@@ -0,0 +1,27 @@
+package com.sslmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批量检查（sweep）的进度，通过事件流推送给前端
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepProgress {
+    public static final String STARTED = "STARTED";
+    public static final String RUNNING = "RUNNING";
+    public static final String FINISHED = "FINISHED";
+
+    private String phase;
+    private LocalDateTime startedAt;
+    private int total;
+    // 已完成的检查数，进度在每批结果写库后推送
+    private int succeeded;
+    private int failed;
+    private long elapsedMs;
+}
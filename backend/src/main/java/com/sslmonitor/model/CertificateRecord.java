@@ -0,0 +1,56 @@
+package com.sslmonitor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 检查中见过的证书（含证书链中的中间证书），按 SHA-256 指纹去重，多个域名、多次检查共用一行。
+ * 中间证书只保存指纹和DER原文，服务端证书额外保存主体、签发者等常用字段。
+ */
+@Data
+@Entity
+@Table(name = "certificates", indexes = {
+    @Index(name = "idx_certificates_fingerprint", columnList = "fingerprint", unique = true),
+    @Index(name = "idx_certificates_not_after", columnList = "not_after")
+})
+public class CertificateRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(length = 512)
+    private String subject;
+
+    @Column(length = 512)
+    private String issuer;
+
+    @Column(length = 64)
+    private String serialNumber;
+
+    @Column
+    private LocalDateTime notBefore;
+
+    @Column
+    private LocalDateTime notAfter;
+
+    // SAN 中的 DNS 名称，逗号分隔
+    @Column(length = 4096)
+    private String subjectAltNames;
+
+    @Column
+    private LocalDateTime firstSeen;
+
+    // 最近一次在检查中出现的日期，每张证书每天最多更新一次；清理时据此判断证书是否仍在使用
+    @Column
+    private LocalDate lastSeen;
+
+    // 证书的DER原文，结构化信息在查询时才解析
+    @Lob
+    @Column(length = 65536)
+    private byte[] der;
+}
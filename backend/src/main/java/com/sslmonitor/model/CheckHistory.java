@@ -0,0 +1,42 @@
+package com.sslmonitor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 一次证书检查的记录。只保存状态、耗时、失败分类和证书引用，证书内容见 {@link CertificateRecord}。
+ * 由 CheckHistoryRecorder 通过 JDBC 批量写入，超过保留期的记录由 CheckHistoryService 清理和压缩。
+ */
+@Data
+@Entity
+@Table(name = "check_history", indexes = {
+    @Index(name = "idx_check_history_domain_time", columnList = "domain_id, checked_at"),
+    @Index(name = "idx_check_history_checked_at", columnList = "checked_at"),
+    @Index(name = "idx_check_history_certificate", columnList = "certificate_id")
+})
+public class CheckHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long domainId;
+
+    @Column(nullable = false)
+    private LocalDateTime checkedAt;
+
+    // 检查后的证书状态（VALID / ERROR）
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    // 拿到证书时指向 certificates 表，否则为空
+    @Column
+    private Long certificateId;
+
+    @Column
+    private Integer latencyMs;
+
+    @Column(length = 32)
+    private String errorClass;
+}
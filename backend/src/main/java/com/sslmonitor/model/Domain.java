@@ -1,13 +1,23 @@
 package com.sslmonitor.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Entity
-@Table(name = "domains")
+@Table(name = "domains", indexes = {
+    @Index(name = "idx_domains_next_check_at", columnList = "next_check_at"),
+    @Index(name = "idx_domains_status_name", columnList = "certificate_status, domain_name"),
+    @Index(name = "idx_domains_expiry_id", columnList = "certificate_expiry_date, id"),
+    @Index(name = "idx_domains_change_version", columnList = "change_version"),
+    @Index(name = "idx_domains_last_checked", columnList = "last_checked")
+})
+@EntityListeners(DomainChangeListener.class)
 public class Domain {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,12 +38,61 @@ public class Domain {
     @Column
     private LocalDateTime lastRenewal;
 
+    // 下一次计划检查时间，由 CheckIntervalPolicy 根据到期时间和失败次数计算
+    @Column
+    private LocalDateTime nextCheckAt;
+
+    // 连续检查失败次数，检查成功后清零
+    @Column
+    private int consecutiveFailures;
+
+    // 熔断状态（CLOSED / OPEN / HALF_OPEN，为空视为CLOSED）及熔断打开到什么时候，见 ProbeCircuitBreaker
+    @Column(length = 16)
+    private String circuitState;
+
+    @Column
+    private LocalDateTime circuitOpenUntil;
+
+    // 最近一次发送到期通知时所在的剩余天数档位及时间，用于避免每次检查都重复通知
+    @Column
+    private Integer lastNotifiedThreshold;
+
+    @Column
+    private LocalDateTime lastNotifiedAt;
+
+    // 本次检查判定需要通知时的档位，不写库；结果写库后据此入队，发送成功后才写入 lastNotifiedThreshold
+    @JsonIgnore
+    @Transient
+    private Integer dueNotificationThreshold;
+
     @Column
     private boolean autoRenewal = true;
 
     @Column(length = 2048)
     private String certificateDetails;
 
+    // 当前证书的签发者DN，用于按签发者统计
+    @Column(length = 512)
+    private String certificateIssuer;
+
+    // 最近一次检查拿到的证书链各证书的指纹（逗号分隔，服务端证书在前），证书原文见 certificates 表
+    @JsonIgnore
+    @Column(length = 1024)
+    private String chainFingerprints;
+
+    // 额外配置的检查端点（其他端口、STARTTLS、多个后端地址），为空时只检查域名的443端口
+    @Valid
+    @Convert(converter = DomainEndpointListConverter.class)
+    @Column(length = 8192)
+    private List<DomainEndpoint> endpoints;
+
+    // 最近一次写入时分配的全局变更版本号及时间，由 DomainChangeListener 维护，用于增量拉取
+    @Column
+    private Long changeVersion;
+
+    @Column
+    private LocalDateTime updatedAt;
+
     @Email(message = "请输入有效的邮箱地址")
     @Column
     private String notificationEmail;
@@ -0,0 +1,27 @@
+package com.sslmonitor.model;
+
+import com.sslmonitor.service.DomainChangeTracker;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+import java.time.LocalDateTime;
+
+/**
+ * 域名每次插入或更新时写入新的变更版本号和更新时间。
+ * 由 Hibernate 通过 Spring 容器创建，因此可以注入 Spring Bean。
+ */
+public class DomainChangeListener {
+
+    private final DomainChangeTracker changeTracker;
+
+    public DomainChangeListener(DomainChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(Domain domain) {
+        domain.setChangeVersion(changeTracker.allocateInTransaction());
+        domain.setUpdatedAt(LocalDateTime.now());
+    }
+}
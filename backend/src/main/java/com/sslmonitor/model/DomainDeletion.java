@@ -0,0 +1,29 @@
+package com.sslmonitor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 已删除域名的记录，让增量拉取的客户端知道哪些域名被删除；保留一段时间后清理
+ */
+@Data
+@Entity
+@Table(name = "domain_deletions", indexes = {
+    @Index(name = "idx_domain_deletions_version", columnList = "change_version"),
+    @Index(name = "idx_domain_deletions_deleted_at", columnList = "deleted_at")
+})
+public class DomainDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long domainId;
+
+    @Column(nullable = false)
+    private Long changeVersion;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,37 @@
+package com.sslmonitor.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 域名下需要检查的一个 TLS 端点，连同最近一次的检查结果以 JSON 保存在 domains.endpoints 列中
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DomainEndpoint {
+
+    // 为空时使用域名本身
+    private String host;
+
+    @Min(value = 1, message = "端口必须在1到65535之间")
+    @Max(value = 65535, message = "端口必须在1到65535之间")
+    private int port = 443;
+
+    // 先以明文协议协商 STARTTLS 再握手：smtp / imap / pop3；为空表示直接 TLS
+    @Pattern(regexp = "smtp|imap|pop3", message = "STARTTLS协议只支持 smtp、imap、pop3")
+    private String startTls;
+
+    // 分别检查主机名解析出的所有 A/AAAA 记录，各后端可能使用不同的证书
+    private boolean allAddresses;
+
+    // 最近一次检查结果
+    private String status;
+    private LocalDateTime expiryDate;
+    private LocalDateTime lastChecked;
+    private String details;
+}
@@ -0,0 +1,48 @@
+package com.sslmonitor.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 端点列表与 JSON 文本之间的转换；没有配置端点时存为NULL
+ */
+@Converter
+public class DomainEndpointListConverter implements AttributeConverter<List<DomainEndpoint>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final TypeReference<List<DomainEndpoint>> TYPE = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(List<DomainEndpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(endpoints);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize domain endpoints", e);
+        }
+    }
+
+    @Override
+    public List<DomainEndpoint> convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to parse domain endpoints", e);
+        }
+    }
+}
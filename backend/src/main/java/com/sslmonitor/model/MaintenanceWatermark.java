@@ -0,0 +1,20 @@
+package com.sslmonitor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * 定期维护任务的进度：记录每个任务已经处理完的最后一天，下次从后一天继续
+ */
+@Data
+@Entity
+@Table(name = "maintenance_watermarks")
+public class MaintenanceWatermark {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDate lastDay;
+}
@@ -0,0 +1,29 @@
+package com.sslmonitor.repository;
+
+import com.sslmonitor.model.CertificateRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CertificateRecordRepository extends JpaRepository<CertificateRecord, Long> {
+    List<CertificateRecord> findByFingerprintIn(Collection<String> fingerprints);
+
+    // before 之后再没有出现过、且没有任何检查记录引用的证书
+    @Query("SELECT c.id FROM CertificateRecord c WHERE (c.lastSeen IS NULL OR c.lastSeen < :before) " +
+           "AND NOT EXISTS (SELECT 1 FROM CheckHistory h WHERE h.certificateId = c.id)")
+    List<Long> findUnreferencedIds(@Param("before") LocalDate before, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CertificateRecord c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
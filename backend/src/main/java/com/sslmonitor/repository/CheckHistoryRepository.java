@@ -0,0 +1,44 @@
+package com.sslmonitor.repository;
+
+import com.sslmonitor.dto.CheckHistoryEntry;
+import com.sslmonitor.model.CheckHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CheckHistoryRepository extends JpaRepository<CheckHistory, Long> {
+
+    // 按 (domain_id, checked_at) 索引取一个域名在时间范围内的记录，最新的在前
+    @Query("SELECT new com.sslmonitor.dto.CheckHistoryEntry(h.checkedAt, h.status, h.latencyMs, h.errorClass, " +
+           "c.fingerprint, c.notAfter) " +
+           "FROM CheckHistory h LEFT JOIN CertificateRecord c ON c.id = h.certificateId " +
+           "WHERE h.domainId = :domainId AND h.checkedAt >= :from AND h.checkedAt < :to " +
+           "ORDER BY h.checkedAt DESC")
+    List<CheckHistoryEntry> findEntries(@Param("domainId") Long domainId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        Pageable pageable);
+
+    @Query("SELECT h.id FROM CheckHistory h WHERE h.checkedAt < :before ORDER BY h.checkedAt ASC")
+    List<Long> findIdsCheckedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Query("SELECT MIN(h.checkedAt) FROM CheckHistory h")
+    LocalDateTime findMinCheckedAt();
+
+    @Query("SELECT MAX(h.domainId) FROM CheckHistory h WHERE h.checkedAt >= :from AND h.checkedAt < :to")
+    Long findMaxDomainIdBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CheckHistory h WHERE h.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,26 @@
+package com.sslmonitor.repository;
+
+import com.sslmonitor.model.DomainDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DomainDeletionRepository extends JpaRepository<DomainDeletion, Long> {
+
+    @Query("SELECT d FROM DomainDeletion d WHERE d.changeVersion > :since AND d.changeVersion <= :upTo " +
+           "ORDER BY d.changeVersion ASC")
+    List<DomainDeletion> findChanges(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DomainDeletion d WHERE d.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,14 +1,137 @@
 package com.sslmonitor.repository;
 
+import com.sslmonitor.dto.DomainSummary;
 import com.sslmonitor.model.Domain;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DomainRepository extends JpaRepository<Domain, Long> {
+    // 导出时每次从数据库取回的行数
+    String EXPORT_FETCH_SIZE = "500";
+
     Optional<Domain> findByDomainName(String domainName);
     List<Domain> findByAutoRenewalTrue();
-} 
\ No newline at end of file
+    List<Domain> findByDomainNameIn(Collection<String> domainNames);
+
+    // 批量判断哪些域名已经存在，只返回域名列
+    @Query("SELECT d.domainName FROM Domain d WHERE d.domainName IN :names")
+    List<String> findExistingDomainNames(@Param("names") Collection<String> names);
+
+    // 仪表盘统计：各项都是按索引的计数或分组，不加载实体
+    long countByCertificateExpiryDateIsNull();
+
+    long countByCertificateExpiryDateLessThan(LocalDateTime before);
+
+    long countByCertificateExpiryDateGreaterThanEqualAndCertificateExpiryDateLessThan(LocalDateTime from,
+                                                                                     LocalDateTime to);
+
+    long countByCertificateExpiryDateGreaterThanEqual(LocalDateTime from);
+
+    @Query("SELECT d.certificateStatus, COUNT(d) FROM Domain d GROUP BY d.certificateStatus")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT d.certificateIssuer, COUNT(d) FROM Domain d WHERE d.certificateIssuer IS NOT NULL " +
+           "GROUP BY d.certificateIssuer ORDER BY COUNT(d) DESC")
+    List<Object[]> countByIssuer(Pageable pageable);
+
+    // 变更版本在 (since, upTo] 内的域名，按版本排序
+    @Query("SELECT d FROM Domain d WHERE d.changeVersion > :since AND d.changeVersion <= :upTo " +
+           "ORDER BY d.changeVersion ASC")
+    List<Domain> findChanges(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
+
+    // 按计划时间排序取出到期待检查的域名（从未检查过的排在最前）
+    @Query("SELECT d FROM Domain d WHERE d.nextCheckAt IS NULL OR d.nextCheckAt <= :now ORDER BY d.nextCheckAt ASC")
+    List<Domain> findDueForCheck(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 从未检查过的域名（批量导入后等待首次检查），按 id 顺序分批取出
+    @Query("SELECT d FROM Domain d WHERE d.lastChecked IS NULL ORDER BY d.id ASC")
+    List<Domain> findNeverChecked(Pageable pageable);
+
+    // 域名列表缓存整表加载时使用，只取列表需要的列
+    @Query("SELECT new com.sslmonitor.dto.DomainSummary(d.id, d.domainName, d.certificateExpiryDate, " +
+           "d.certificateStatus, d.lastChecked, d.nextCheckAt, d.autoRenewal, d.notificationEmail) " +
+           "FROM Domain d ORDER BY d.id ASC")
+    List<DomainSummary> findAllSummaries();
+
+    // 按域名排序的游标分页，afterName 为上一页最后一个域名
+    @Query("SELECT new com.sslmonitor.dto.DomainSummary(d.id, d.domainName, d.certificateExpiryDate, " +
+           "d.certificateStatus, d.lastChecked, d.nextCheckAt, d.autoRenewal, d.notificationEmail) " +
+           "FROM Domain d " +
+           "WHERE (:status IS NULL OR d.certificateStatus = :status) " +
+           "AND (:expiresFrom IS NULL OR d.certificateExpiryDate >= :expiresFrom) " +
+           "AND (:expiresTo IS NULL OR d.certificateExpiryDate < :expiresTo) " +
+           "AND d.domainName LIKE :namePattern ESCAPE '!' " +
+           "AND (:afterName IS NULL OR d.domainName > :afterName) " +
+           "ORDER BY d.domainName ASC")
+    List<DomainSummary> findSummariesOrderByName(@Param("status") String status,
+                                                 @Param("expiresFrom") LocalDateTime expiresFrom,
+                                                 @Param("expiresTo") LocalDateTime expiresTo,
+                                                 @Param("namePattern") String namePattern,
+                                                 @Param("afterName") String afterName,
+                                                 Pageable pageable);
+
+    // 按到期时间排序的游标分页，(afterExpiry, afterId) 为上一页最后一行；没有到期时间的域名由 findSummariesWithoutExpiry 排在最后
+    @Query("SELECT new com.sslmonitor.dto.DomainSummary(d.id, d.domainName, d.certificateExpiryDate, " +
+           "d.certificateStatus, d.lastChecked, d.nextCheckAt, d.autoRenewal, d.notificationEmail) " +
+           "FROM Domain d " +
+           "WHERE d.certificateExpiryDate IS NOT NULL " +
+           "AND (:status IS NULL OR d.certificateStatus = :status) " +
+           "AND (:expiresFrom IS NULL OR d.certificateExpiryDate >= :expiresFrom) " +
+           "AND (:expiresTo IS NULL OR d.certificateExpiryDate < :expiresTo) " +
+           "AND d.domainName LIKE :namePattern ESCAPE '!' " +
+           "AND (:afterExpiry IS NULL OR d.certificateExpiryDate > :afterExpiry " +
+           "     OR (d.certificateExpiryDate = :afterExpiry AND d.id > :afterId)) " +
+           "ORDER BY d.certificateExpiryDate ASC, d.id ASC")
+    List<DomainSummary> findSummariesOrderByExpiry(@Param("status") String status,
+                                                   @Param("expiresFrom") LocalDateTime expiresFrom,
+                                                   @Param("expiresTo") LocalDateTime expiresTo,
+                                                   @Param("namePattern") String namePattern,
+                                                   @Param("afterExpiry") LocalDateTime afterExpiry,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    // 按到期时间排序时排在最后的、还没有到期时间（从未检查成功）的域名，按 id 分页
+    @Query("SELECT new com.sslmonitor.dto.DomainSummary(d.id, d.domainName, d.certificateExpiryDate, " +
+           "d.certificateStatus, d.lastChecked, d.nextCheckAt, d.autoRenewal, d.notificationEmail) " +
+           "FROM Domain d " +
+           "WHERE d.certificateExpiryDate IS NULL " +
+           "AND (:status IS NULL OR d.certificateStatus = :status) " +
+           "AND d.domainName LIKE :namePattern ESCAPE '!' " +
+           "AND (:afterId IS NULL OR d.id > :afterId) " +
+           "ORDER BY d.id ASC")
+    List<DomainSummary> findSummariesWithoutExpiry(@Param("status") String status,
+                                                   @Param("namePattern") String namePattern,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    // 按域名排序逐行读取全部符合条件的域名，供导出使用；调用方需在只读事务中消费并关闭 Stream
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.sslmonitor.dto.DomainSummary(d.id, d.domainName, d.certificateExpiryDate, " +
+           "d.certificateStatus, d.lastChecked, d.nextCheckAt, d.autoRenewal, d.notificationEmail) " +
+           "FROM Domain d " +
+           "WHERE (:status IS NULL OR d.certificateStatus = :status) " +
+           "AND (:expiresFrom IS NULL OR d.certificateExpiryDate >= :expiresFrom) " +
+           "AND (:expiresTo IS NULL OR d.certificateExpiryDate < :expiresTo) " +
+           "AND d.domainName LIKE :namePattern ESCAPE '!' " +
+           "ORDER BY d.domainName ASC")
+    Stream<DomainSummary> streamSummaries(@Param("status") String status,
+                                          @Param("expiresFrom") LocalDateTime expiresFrom,
+                                          @Param("expiresTo") LocalDateTime expiresTo,
+                                          @Param("namePattern") String namePattern);
+}
@@ -0,0 +1,9 @@
+package com.sslmonitor.repository;
+
+import com.sslmonitor.model.MaintenanceWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MaintenanceWatermarkRepository extends JpaRepository<MaintenanceWatermark, String> {
+}
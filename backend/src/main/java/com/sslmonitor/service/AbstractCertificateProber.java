@@ -0,0 +1,211 @@
+package com.sslmonitor.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 各探测实现共用的证书解析与错误归类逻辑
+ */
+@Slf4j
+public abstract class AbstractCertificateProber implements CertificateProber {
+
+    static final int MAX_CHAIN_LENGTH = 10;
+
+    protected final ProberSslContext sslContext;
+    protected final DomainResolver resolver;
+    protected final CheckMetrics metrics;
+
+    protected AbstractCertificateProber(ProberSslContext sslContext, DomainResolver resolver, CheckMetrics metrics) {
+        this.sslContext = sslContext;
+        this.resolver = resolver;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 用阻塞 Socket 完成一次探测：address 为空时先解析 host，startTls 不为空时先完成 STARTTLS 协商。
+     * DNS、TCP连接和TLS握手分别计时
+     */
+    protected CertificateCheckResult probeBlocking(String host, InetAddress address, int port, String startTls,
+                                                   int timeoutMs) {
+        try (Socket socket = new Socket()) {
+            socket.setSoTimeout(timeoutMs);
+            InetAddress inetAddress = address;
+            if (inetAddress == null) {
+                long start = System.nanoTime();
+                inetAddress = resolver.resolve(host);
+                metrics.recordPhase(CheckMetrics.PHASE_DNS, start);
+            }
+
+            long start = System.nanoTime();
+            socket.connect(new InetSocketAddress(inetAddress, port), timeoutMs);
+            metrics.recordPhase(CheckMetrics.PHASE_CONNECT, start);
+
+            if (startTls != null) {
+                StartTlsNegotiator.negotiate(socket, startTls);
+            }
+
+            try (SSLSocket sslSocket = sslContext.createSocket(socket, host, port)) {
+                sslSocket.setSoTimeout(timeoutMs);
+                start = System.nanoTime();
+                sslSocket.startHandshake();
+                metrics.recordPhase(CheckMetrics.PHASE_HANDSHAKE, start);
+
+                try {
+                    CertificateCheckResult result = buildResult(host, sslSocket.getSession().getPeerCertificates());
+                    result.setRemoteAddress(inetAddress.getHostAddress());
+                    return result;
+                } finally {
+                    sslContext.discard(sslSocket.getSession());
+                }
+            }
+        } catch (Exception e) {
+            return failure(host, e);
+        }
+    }
+
+    protected CertificateCheckResult buildResult(String domainName, Certificate[] certs) {
+        CertificateCheckResult result = new CertificateCheckResult();
+
+        if (certs == null || certs.length == 0 || !(certs[0] instanceof X509Certificate)) {
+            result.setErrorMessage("No certificates found for domain: " + domainName);
+            result.setErrorClass("no_certificate");
+            return result;
+        }
+
+        X509Certificate cert = (X509Certificate) certs[0];
+        LocalDateTime expiryDate = cert.getNotAfter().toInstant()
+            .atZone(ZoneId.systemDefault())
+            .toLocalDateTime();
+        LocalDateTime startDate = cert.getNotBefore().toInstant()
+            .atZone(ZoneId.systemDefault())
+            .toLocalDateTime();
+        LocalDateTime now = LocalDateTime.now();
+        long daysUntilExpiry = ChronoUnit.DAYS.between(now, expiryDate);
+
+        // 保存对端发来的完整证书链的DER原文，各字段等到查询时再解析；过期或尚未生效的证书同样记录，便于排查
+        List<byte[]> chain = encodedChain(certs);
+        List<String> chainFingerprints = chain.stream().map(AbstractCertificateProber::fingerprint).toList();
+
+        result.setFingerprint(chainFingerprints.isEmpty() ? null : chainFingerprints.get(0));
+        result.setChain(chain, chainFingerprints);
+        result.setSubjectAltNames(dnsNames(cert));
+        result.setSubject(cert.getSubjectX500Principal().getName());
+        result.setIssuer(cert.getIssuerX500Principal().getName());
+        result.setSerialNumber(cert.getSerialNumber().toString(16));
+        result.setNotBefore(startDate);
+        result.setExpiryDate(expiryDate);
+        result.setDaysUntilExpiry(daysUntilExpiry);
+
+        // 检查证书是否在有效期内
+        if (now.isBefore(startDate)) {
+            result.setErrorMessage("Certificate is not yet valid");
+            result.setErrorClass("not_yet_valid");
+            return result;
+        }
+
+        if (now.isAfter(expiryDate)) {
+            result.setErrorMessage("Certificate has expired");
+            result.setErrorClass("expired");
+            return result;
+        }
+
+        // 构建证书详情
+        StringBuilder details = new StringBuilder();
+        details.append("Subject: ").append(cert.getSubjectX500Principal().getName()).append("\n");
+        details.append("Issuer: ").append(cert.getIssuerX500Principal().getName()).append("\n");
+        details.append("Valid From: ").append(cert.getNotBefore()).append("\n");
+        details.append("Valid Until: ").append(cert.getNotAfter()).append("\n");
+        details.append("Serial Number: ").append(cert.getSerialNumber()).append("\n");
+        details.append("Days until expiry: ").append(daysUntilExpiry);
+
+        result.setAccessible(true);
+        result.setCertificateDetails(details.toString());
+
+        log.debug("Certificate check successful for domain: {}, expires in {} days",
+            domainName, daysUntilExpiry);
+        return result;
+    }
+
+    protected static String fingerprint(byte[] der) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(der));
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    // 证书链中各证书的DER编码，服务端发来的证书过多时只保留前 MAX_CHAIN_LENGTH 张
+    protected static List<byte[]> encodedChain(Certificate[] certs) {
+        List<byte[]> chain = new ArrayList<>(Math.min(certs.length, MAX_CHAIN_LENGTH));
+        for (int i = 0; i < certs.length && i < MAX_CHAIN_LENGTH; i++) {
+            try {
+                chain.add(certs[i].getEncoded());
+            } catch (CertificateEncodingException e) {
+                break;
+            }
+        }
+        return chain;
+    }
+
+    // SAN 中的 DNS 名称（类型2）
+    protected static List<String> dnsNames(X509Certificate cert) {
+        try {
+            Collection<List<?>> entries = cert.getSubjectAlternativeNames();
+            if (entries == null) {
+                return List.of();
+            }
+            List<String> names = new ArrayList<>();
+            for (List<?> entry : entries) {
+                if (entry.size() > 1 && Integer.valueOf(2).equals(entry.get(0))) {
+                    names.add(String.valueOf(entry.get(1)));
+                }
+            }
+            return names;
+        } catch (CertificateParsingException e) {
+            return List.of();
+        }
+    }
+
+    protected CertificateCheckResult failure(String domainName, Exception e) {
+        CertificateCheckResult result = new CertificateCheckResult();
+        result.setUnreachable(true);
+        result.setErrorClass(CheckMetrics.failureClass(e));
+        metrics.recordFailure(e);
+
+        if (e instanceof UnknownHostException) {
+            result.setErrorMessage("DNS resolution failed: " + e.getMessage());
+            log.error("DNS resolution failed for domain {}: {}", domainName, e.getMessage());
+        } else if (e instanceof SSLHandshakeException) {
+            result.setErrorMessage("SSL handshake failed: " + e.getMessage());
+            log.error("SSL handshake failed for domain {}: {}", domainName, e.getMessage());
+        } else if (e instanceof SocketTimeoutException) {
+            result.setErrorMessage("Connection timed out: " + e.getMessage());
+            log.error("Connection timed out for domain {}: {}", domainName, e.getMessage());
+        } else {
+            result.setErrorMessage("Certificate check failed: " + e.getMessage());
+            log.error("Certificate check failed for domain {}: {}", domainName, e.getMessage(), e);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.repository.DomainRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 自适应调度：定期取出 nextCheckAt 已到的域名交给 sweep 引擎检查，
+ * 检查完成后由 CertificateService 按 CheckIntervalPolicy 重新排期。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "certificate.schedule.mode", havingValue = "adaptive")
+public class AdaptiveCheckScheduler {
+
+    private final DomainRepository domainRepository;
+    private final CertificateService certificateService;
+    private final CheckMetrics metrics;
+
+    @Value("${certificate.schedule.adaptive.batch-size:500}")
+    private int batchSize;
+
+    public AdaptiveCheckScheduler(DomainRepository domainRepository, CertificateService certificateService,
+                                  CheckMetrics metrics) {
+        this.domainRepository = domainRepository;
+        this.certificateService = certificateService;
+        this.metrics = metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${certificate.schedule.poll-interval-ms:60000}")
+    public void checkDueDomains() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Domain> due = domainRepository.findDueForCheck(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            metrics.setScheduleLag(Duration.ZERO);
+            return;
+        }
+
+        // 最早的计划时间排在最前（从未检查过的为null，不计入延迟）
+        LocalDateTime oldestDue = due.stream()
+            .map(Domain::getNextCheckAt)
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(now);
+        metrics.setScheduleLag(Duration.between(oldestDue, now));
+
+        log.info("Found {} domains due for certificate check", due.size());
+        certificateService.sweepDomains(due);
+    }
+}
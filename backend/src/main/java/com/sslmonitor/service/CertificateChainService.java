@@ -0,0 +1,122 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.CertificateInfo;
+import com.sslmonitor.model.CertificateRecord;
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.repository.CertificateRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.security.PublicKey;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.DSAKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 按域名最近一次检查保存的证书链指纹，从 certificates 表取出DER原文并解析，
+ * 不需要重新探测。只有在查询时才解析证书。
+ */
+@Slf4j
+@Service
+public class CertificateChainService {
+
+    private final CertificateRecordRepository certificateRepository;
+
+    public CertificateChainService(CertificateRecordRepository certificateRepository) {
+        this.certificateRepository = certificateRepository;
+    }
+
+    /**
+     * 返回域名的证书链，服务端证书在前；还没有检查过时返回空列表
+     */
+    public List<CertificateInfo> describeChain(Domain domain) {
+        if (!StringUtils.hasText(domain.getChainFingerprints())) {
+            return List.of();
+        }
+        List<String> fingerprints = Arrays.asList(domain.getChainFingerprints().split(","));
+        Map<String, CertificateRecord> stored = certificateRepository.findByFingerprintIn(fingerprints).stream()
+            .collect(Collectors.toMap(CertificateRecord::getFingerprint, Function.identity()));
+
+        CertificateFactory factory;
+        try {
+            factory = CertificateFactory.getInstance("X.509");
+        } catch (CertificateException e) {
+            throw new IllegalStateException("X.509 certificate factory is not available", e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CertificateInfo> chain = new ArrayList<>(fingerprints.size());
+        for (String fingerprint : fingerprints) {
+            CertificateRecord record = stored.get(fingerprint);
+            chain.add(record == null || record.getDer() == null
+                ? unavailable(fingerprint)
+                : parse(factory, fingerprint, record.getDer(), now));
+        }
+        return chain;
+    }
+
+    private CertificateInfo parse(CertificateFactory factory, String fingerprint, byte[] der, LocalDateTime now) {
+        X509Certificate cert;
+        try {
+            cert = (X509Certificate) factory.generateCertificate(new ByteArrayInputStream(der));
+        } catch (CertificateException | ClassCastException e) {
+            log.warn("Stored certificate {} could not be parsed: {}", fingerprint, e.getMessage());
+            return unavailable(fingerprint);
+        }
+
+        CertificateInfo info = new CertificateInfo();
+        info.setFingerprint(fingerprint);
+        info.setAvailable(true);
+        info.setSubject(cert.getSubjectX500Principal().getName());
+        info.setIssuer(cert.getIssuerX500Principal().getName());
+        info.setSerialNumber(cert.getSerialNumber().toString(16));
+        info.setNotBefore(toLocalDateTime(cert.getNotBefore()));
+        info.setNotAfter(toLocalDateTime(cert.getNotAfter()));
+        info.setDaysUntilExpiry(ChronoUnit.DAYS.between(now, info.getNotAfter()));
+        info.setSubjectAltNames(AbstractCertificateProber.dnsNames(cert));
+        info.setKeyType(cert.getPublicKey().getAlgorithm());
+        info.setKeySize(keySize(cert.getPublicKey()));
+        info.setSignatureAlgorithm(cert.getSigAlgName());
+        info.setCa(cert.getBasicConstraints() >= 0);
+        info.setSelfSigned(cert.getSubjectX500Principal().equals(cert.getIssuerX500Principal()));
+        return info;
+    }
+
+    private static CertificateInfo unavailable(String fingerprint) {
+        CertificateInfo info = new CertificateInfo();
+        info.setFingerprint(fingerprint);
+        info.setAvailable(false);
+        return info;
+    }
+
+    // RSA/DSA 取模数位数，EC 取曲线的域大小，其他算法（如 Ed25519）不返回
+    private static Integer keySize(PublicKey key) {
+        if (key instanceof RSAKey rsa) {
+            return rsa.getModulus().bitLength();
+        } else if (key instanceof ECKey ec) {
+            return ec.getParams().getCurve().getField().getFieldSize();
+        } else if (key instanceof DSAKey dsa && dsa.getParams() != null) {
+            return dsa.getParams().getP().bitLength();
+        }
+        return null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,165 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 单次证书探测的结果，由 {@link CertificateProber} 产生
+ */
+public class CertificateCheckResult {
+    private boolean accessible;
+    private String errorMessage;
+    private LocalDateTime expiryDate;
+    private String certificateDetails;
+    private long daysUntilExpiry;
+    // 服务端证书的 SHA-256 指纹（十六进制）和 SAN 中的 DNS 名称
+    private String fingerprint;
+    private List<String> subjectAltNames = List.of();
+    // 实际连接的IP地址
+    private String remoteAddress;
+    // 没能拿到证书（解析、连接、握手失败或超时），区别于拿到了证书但证书无效
+    private boolean unreachable;
+    // 证书的主体、签发者、序列号和生效时间，写入检查历史时按指纹去重保存
+    private String subject;
+    private String issuer;
+    private String serialNumber;
+    private LocalDateTime notBefore;
+    // 失败原因的分类（unknown_host、expired 等），成功时为空
+    private String errorClass;
+    // 对端发来的证书链（服务端证书在前）的DER编码及各自的指纹
+    private List<byte[]> chain = List.of();
+    private List<String> chainFingerprints = List.of();
+
+    public CertificateCheckResult() {
+        this.accessible = false;
+    }
+
+    public boolean isAccessible() { return accessible; }
+    public String getErrorMessage() { return errorMessage; }
+    public LocalDateTime getExpiryDate() { return expiryDate; }
+    public String getCertificateDetails() { return certificateDetails; }
+    public long getDaysUntilExpiry() { return daysUntilExpiry; }
+    public String getFingerprint() { return fingerprint; }
+    public List<String> getSubjectAltNames() { return subjectAltNames; }
+    public String getRemoteAddress() { return remoteAddress; }
+    public boolean isUnreachable() { return unreachable; }
+    public String getSubject() { return subject; }
+    public String getIssuer() { return issuer; }
+    public String getSerialNumber() { return serialNumber; }
+    public LocalDateTime getNotBefore() { return notBefore; }
+    public String getErrorClass() { return errorClass; }
+    public List<byte[]> getChain() { return chain; }
+    public List<String> getChainFingerprints() { return chainFingerprints; }
+
+    public void setAccessible(boolean accessible) { this.accessible = accessible; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
+    public void setCertificateDetails(String certificateDetails) { this.certificateDetails = certificateDetails; }
+    public void setDaysUntilExpiry(long daysUntilExpiry) { this.daysUntilExpiry = daysUntilExpiry; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+    public void setSubjectAltNames(List<String> subjectAltNames) { this.subjectAltNames = List.copyOf(subjectAltNames); }
+    public void setRemoteAddress(String remoteAddress) { this.remoteAddress = remoteAddress; }
+    public void setUnreachable(boolean unreachable) { this.unreachable = unreachable; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public void setIssuer(String issuer) { this.issuer = issuer; }
+    public void setSerialNumber(String serialNumber) { this.serialNumber = serialNumber; }
+    public void setNotBefore(LocalDateTime notBefore) { this.notBefore = notBefore; }
+    public void setErrorClass(String errorClass) { this.errorClass = errorClass; }
+
+    public void setChain(List<byte[]> chain, List<String> chainFingerprints) {
+        this.chain = List.copyOf(chain);
+        this.chainFingerprints = List.copyOf(chainFingerprints);
+    }
+
+    /**
+     * 证书的 SAN 是否包含该域名；通配符只匹配一级子域名
+     */
+    public boolean covers(String domainName) {
+        String name = domainName.toLowerCase();
+        for (String san : subjectAltNames) {
+            String pattern = san.toLowerCase();
+            if (pattern.equals(name)) {
+                return true;
+            }
+            if (pattern.startsWith("*.")) {
+                int dot = name.indexOf('.');
+                if (dot > 0 && name.substring(dot).equals(pattern.substring(1))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 复制一份结果，供证书相同的其他域名使用
+     */
+    public CertificateCheckResult copy() {
+        CertificateCheckResult copy = new CertificateCheckResult();
+        copy.accessible = accessible;
+        copy.errorMessage = errorMessage;
+        copy.expiryDate = expiryDate;
+        copy.certificateDetails = certificateDetails;
+        copy.daysUntilExpiry = daysUntilExpiry;
+        copy.fingerprint = fingerprint;
+        copy.subjectAltNames = subjectAltNames;
+        copy.remoteAddress = remoteAddress;
+        copy.unreachable = unreachable;
+        copy.subject = subject;
+        copy.issuer = issuer;
+        copy.serialNumber = serialNumber;
+        copy.notBefore = notBefore;
+        copy.errorClass = errorClass;
+        copy.chain = chain;
+        copy.chainFingerprints = chainFingerprints;
+        return copy;
+    }
+
+    /**
+     * 从另一次探测结果复制证书本身的信息（不含可访问性和错误）
+     */
+    public void copyCertificateFrom(CertificateCheckResult other) {
+        expiryDate = other.expiryDate;
+        daysUntilExpiry = other.daysUntilExpiry;
+        fingerprint = other.fingerprint;
+        subjectAltNames = other.subjectAltNames;
+        subject = other.subject;
+        issuer = other.issuer;
+        serialNumber = other.serialNumber;
+        notBefore = other.notBefore;
+        chain = other.chain;
+        chainFingerprints = other.chainFingerprints;
+    }
+
+    /**
+     * 把探测结果写到域名实体上：无法访问时只记录错误，
+     * 否则更新证书信息，证书在有效期内为VALID，否则为ERROR
+     */
+    public void applyTo(Domain domain) {
+        if (!accessible) {
+            domain.setCertificateStatus("ERROR");
+            domain.setCertificateDetails(errorMessage);
+            // 拿到了证书但已过期或尚未生效，以及多端点检查中部分端点成功时，仍记录到期时间和证书链
+            if (expiryDate != null) {
+                domain.setCertificateExpiryDate(expiryDate);
+            }
+            if (!chainFingerprints.isEmpty()) {
+                domain.setChainFingerprints(String.join(",", chainFingerprints));
+                domain.setCertificateIssuer(issuer == null || issuer.length() <= 512 ? issuer : issuer.substring(0, 512));
+            }
+            return;
+        }
+
+        domain.setCertificateExpiryDate(expiryDate);
+        domain.setCertificateDetails(certificateDetails);
+        domain.setChainFingerprints(chainFingerprints.isEmpty() ? null : String.join(",", chainFingerprints));
+        domain.setCertificateIssuer(issuer == null || issuer.length() <= 512 ? issuer : issuer.substring(0, 512));
+        if (expiryDate != null && LocalDateTime.now().isBefore(expiryDate)) {
+            domain.setCertificateStatus("VALID");
+        } else {
+            domain.setCertificateStatus("ERROR");
+        }
+    }
+}
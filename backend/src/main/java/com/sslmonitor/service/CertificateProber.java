@@ -0,0 +1,45 @@
+package com.sslmonitor.service;
+
+import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 连接域名的HTTPS端口（默认443）或指定端点并读取服务端证书。
+ * 具体实现由配置项 certificate.prober 选择（socket / nio）。
+ */
+public interface CertificateProber {
+
+    int DEFAULT_PORT = 443;
+    // 连接和读取各自的超时时间
+    int DEFAULT_TIMEOUT_MS = 10000;
+
+    /**
+     * 探测一个具体端点：address 为空时先解析 host；startTls（smtp / imap / pop3）不为空时先完成 STARTTLS 协商。
+     * 握手时以 host 作为 SNI
+     */
+    CertificateCheckResult probeEndpoint(String host, InetAddress address, int port, String startTls, int timeoutMs);
+
+    default CertificateCheckResult probe(String domainName, int port, int timeoutMs) {
+        return probeEndpoint(domainName, null, port, null, timeoutMs);
+    }
+
+    default CertificateCheckResult probe(String domainName, int port) {
+        return probe(domainName, port, DEFAULT_TIMEOUT_MS);
+    }
+
+    default CertificateCheckResult probe(String domainName) {
+        return probe(domainName, DEFAULT_PORT);
+    }
+
+    default CompletableFuture<CertificateCheckResult> probeAsync(String domainName, int port, int timeoutMs) {
+        return CompletableFuture.completedFuture(probe(domainName, port, timeoutMs));
+    }
+
+    default CompletableFuture<CertificateCheckResult> probeAsync(String domainName, int port) {
+        return probeAsync(domainName, port, DEFAULT_TIMEOUT_MS);
+    }
+
+    default CompletableFuture<CertificateCheckResult> probeAsync(String domainName) {
+        return probeAsync(domainName, DEFAULT_PORT);
+    }
+}
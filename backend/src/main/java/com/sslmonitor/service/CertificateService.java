@@ -7,102 +7,200 @@ import org.shredzone.acme4j.exception.AcmeException;
 import org.shredzone.acme4j.util.KeyPairUtils;
 import org.shredzone.acme4j.util.CSRBuilder;
 import org.shredzone.acme4j.challenge.Http01Challenge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Scheduled;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
-import javax.net.ssl.*;
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.net.UnknownHostException;
-import java.security.KeyManagementException;
 import java.security.KeyPair;
-import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.net.SocketTimeoutException;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 public class CertificateService {
     
     private final DomainRepository domainRepository;
-    private final EmailService emailService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final CertificateSweepEngine sweepEngine;
+    private final CertificateProber prober;
+    private final CheckIntervalPolicy checkIntervalPolicy;
+    private final DomainBatchWriter domainBatchWriter;
+    private final DomainStatusCache statusCache;
+    private final NotificationPolicy notificationPolicy;
+    private final CheckMetrics metrics;
+    private final DomainResolver domainResolver;
+    private final ProbeCircuitBreaker circuitBreaker;
+    private final DomainEndpointProber endpointProber;
+    private final CheckHistoryRecorder historyRecorder;
+    private final DomainEventBus eventBus;
     private static final String LETS_ENCRYPT_STAGING_URL = "acme://letsencrypt.org/staging";
     private static final String LETS_ENCRYPT_PRODUCTION_URL = "acme://letsencrypt.org";
     private static final int MAX_RETRIES = 2;  // 增加重试次数
     private static final int RETRY_DELAY_SECONDS = 2;
-    private static final int CONNECT_TIMEOUT = 10000; // 增加到10秒
-    private static final int READ_TIMEOUT = 10000; // 增加到10秒
 
-    public CertificateService(DomainRepository domainRepository, EmailService emailService) {
+    @Value("${certificate.schedule.mode:fixed}")
+    private String scheduleMode;
+
+    // fixed 模式下每次轮询最多为这么多个新域名安排首次检查
+    @Value("${certificate.schedule.new-domain-batch-size:500}")
+    private int newDomainBatchSize;
+
+    // sweep 中同一IP、同一证书覆盖的域名共享一次握手的结果
+    @Value("${certificate.sweep.dedupe-endpoints:true}")
+    private boolean dedupeEndpoints;
+
+    public CertificateService(DomainRepository domainRepository, NotificationDispatcher notificationDispatcher,
+                              CertificateSweepEngine sweepEngine, CertificateProber prober,
+                              CheckIntervalPolicy checkIntervalPolicy, DomainBatchWriter domainBatchWriter,
+                              DomainStatusCache statusCache, NotificationPolicy notificationPolicy,
+                              CheckMetrics metrics, DomainResolver domainResolver,
+                              ProbeCircuitBreaker circuitBreaker, DomainEndpointProber endpointProber,
+                              CheckHistoryRecorder historyRecorder, DomainEventBus eventBus) {
         this.domainRepository = domainRepository;
-        this.emailService = emailService;
+        this.notificationDispatcher = notificationDispatcher;
+        this.sweepEngine = sweepEngine;
+        this.prober = prober;
+        this.checkIntervalPolicy = checkIntervalPolicy;
+        this.domainBatchWriter = domainBatchWriter;
+        this.statusCache = statusCache;
+        this.notificationPolicy = notificationPolicy;
+        this.metrics = metrics;
+        this.domainResolver = domainResolver;
+        this.circuitBreaker = circuitBreaker;
+        this.endpointProber = endpointProber;
+        this.historyRecorder = historyRecorder;
+        this.eventBus = eventBus;
     }
 
     public Domain checkCertificate(String domainName, boolean isManualCheck) {
+        // 清理域名格式并查找域名记录，后续检查直接使用这个实体
+        domainName = cleanDomainName(domainName);
+        Domain domain = domainRepository.findByDomainName(domainName)
+            .orElse(new Domain());
+        domain.setDomainName(domainName);
+
+        applyCheck(domain, prober::probe, CertificateProber.DEFAULT_TIMEOUT_MS);
+        Integer dueThreshold = domain.getDueNotificationThreshold();
+        long saveStart = System.nanoTime();
+        Domain savedDomain = domainRepository.save(domain);
+        metrics.recordDbSave(saveStart);
+        statusCache.put(savedDomain);
+        eventBus.publishCheck(savedDomain);
+        notifyIfDue(savedDomain, dueThreshold);
+        return savedDomain;
+    }
+
+    // 在一个事务里批量写回检查结果，写库成功后再发送到期通知；检查期间已被删除的域名直接丢弃
+    public void saveCheckResults(List<Domain> domains) {
+        long saveStart = System.nanoTime();
+        List<Domain> saved = domainBatchWriter.write(domains);
+        metrics.recordDbBatch(saveStart);
+        if (saved.isEmpty()) {
+            return;
+        }
+        // sweep 中的实体是开始时加载的，写库后重新读取：缓存、推送和通知使用期间修改过的邮箱、端点等配置，
+        // 是否需要通知也按最新的已通知状态重新判定
+        List<Domain> current = domainRepository.findAllById(saved.stream().map(Domain::getId).toList());
+        current.forEach(this::markNotificationIfDue);
+        statusCache.putAll(current);
+        current.forEach(eventBus::publishCheck);
+        current.forEach(domain -> notifyIfDue(domain, domain.getDueNotificationThreshold()));
+    }
+
+    // 并发检查一批域名并批量写回结果；上一轮仍在执行时返回null
+    public SweepReport sweepDomains(List<Domain> domains) {
+        List<Domain> postponed = Collections.synchronizedList(new ArrayList<>());
+        SweepReport report;
+        if (!dedupeEndpoints) {
+            report = sweepEngine.sweep(domains, domain -> checkScheduled(domain, prober::probe, postponed),
+                this::saveCheckResults);
+        } else {
+            EndpointProbeCache probeCache = new EndpointProbeCache(prober, domainResolver, metrics);
+            report = sweepEngine.sweep(probeCache.orderByEndpoint(domains),
+                domain -> checkScheduled(domain, probeCache::probe, postponed), this::saveCheckResults);
+            if (report != null) {
+                log.info("Sweep probed {} endpoints with {} handshakes, {} checks shared an existing result",
+                    probeCache.getEndpoints(), probeCache.getHandshakes(), probeCache.getShared());
+            }
+        }
+        // 被推迟的域名只更新下一次检查时间，不写检查结果、不推送也不通知
+        if (!postponed.isEmpty()) {
+            domainBatchWriter.postpone(postponed);
+        }
+        return report;
+    }
+
+    // 计划内检查先经过熔断判断：熔断中的域名跳过并返回 null，退避结束的域名用短超时试探一次
+    private Domain checkScheduled(Domain domain, Function<String, CertificateCheckResult> probe,
+                                  List<Domain> postponed) {
+        return switch (circuitBreaker.admit(domain)) {
+            case SKIP -> {
+                if (circuitBreaker.postpone(domain)) {
+                    postponed.add(domain);
+                }
+                yield null;
+            }
+            case TRIAL -> applyCheck(domain, name ->
+                prober.probe(name, CertificateProber.DEFAULT_PORT, circuitBreaker.getTrialTimeoutMs()),
+                circuitBreaker.getTrialTimeoutMs());
+            case ALLOW -> applyCheck(domain, probe, CertificateProber.DEFAULT_TIMEOUT_MS);
+        };
+    }
+
+    private Domain applyCheck(Domain domain, Function<String, CertificateCheckResult> probe, int timeoutMs) {
+        String domainName = domain.getDomainName();
         int retryCount = 0;
         Exception lastException = null;
-        Domain domain = null;
 
-        try {
-            // 清理域名格式并创建域名对象
-            domainName = cleanDomainName(domainName);
-            domain = domainRepository.findByDomainName(domainName)
-                .orElse(new Domain());
-            domain.setDomainName(domainName);
-            domain.setLastChecked(LocalDateTime.now());
-            
-            while (retryCount < MAX_RETRIES) {
-                try {
-                    log.info("Attempting certificate check for domain {} (attempt {}/{})", 
-                        domainName, retryCount + 1, MAX_RETRIES);
-                    Domain checkedDomain = doCheckCertificate(domainName);
-                    if (checkedDomain != null) {
-                        return checkedDomain;
-                    }
-                } catch (Exception e) {
-                    lastException = e;
-                    log.warn("Attempt {} failed for domain {}: {}", 
-                        retryCount + 1, domainName, e.getMessage());
-                    retryCount++;
-                    
-                    if (retryCount < MAX_RETRIES) {
-                        try {
-                            TimeUnit.SECONDS.sleep(RETRY_DELAY_SECONDS);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
+        while (retryCount < MAX_RETRIES) {
+            try {
+                log.info("Attempting certificate check for domain {} (attempt {}/{})", 
+                    domainName, retryCount + 1, MAX_RETRIES);
+                long probeStart = System.nanoTime();
+                CertificateCheckResult checkResult = updateFromProbe(domain, probe, timeoutMs);
+                long probeNanos = System.nanoTime() - probeStart;
+                scheduleNextCheck(domain);
+                circuitBreaker.record(domain, checkResult, probeNanos);
+                historyRecorder.record(domain, checkResult, probeNanos);
+                markNotificationIfDue(domain);
+                return domain;
+            } catch (Exception e) {
+                lastException = e;
+                log.warn("Attempt {} failed for domain {}: {}", 
+                    retryCount + 1, domainName, e.getMessage());
+                retryCount++;
+                
+                if (retryCount < MAX_RETRIES) {
+                    try {
+                        TimeUnit.SECONDS.sleep(RETRY_DELAY_SECONDS);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
                     }
                 }
             }
-        } catch (Exception e) {
-            log.error("Unexpected error during certificate check for domain: " + domainName, e);
-            lastException = e;
         }
 
         String errorMsg = String.format("Certificate check failed after %d attempts for domain %s: %s",
             MAX_RETRIES, domainName, lastException != null ? lastException.getMessage() : "Unknown error");
         log.error(errorMsg, lastException);
         
-        if (domain == null) {
-            domain = new Domain();
-            domain.setDomainName(domainName);
-        }
-        
         return handleCertificateError(domain, errorMsg);
     }
 
-    private String cleanDomainName(String domainName) {
+    public static String cleanDomainName(String domainName) {
         if (domainName == null) return null;
         
         // 移除前后空格
@@ -129,221 +227,98 @@ public class CertificateService {
         return domainName;
     }
 
-    private Domain doCheckCertificate(String domainName) throws Exception {
+    private CertificateCheckResult updateFromProbe(Domain domain, Function<String, CertificateCheckResult> probe,
+                                                   int timeoutMs) {
+        String domainName = domain.getDomainName();
         log.info("Starting certificate check for domain: {}", domainName);
-        
-        // 清理域名格式
-        domainName = cleanDomainName(domainName);
-        log.debug("Cleaned domain name: {}", domainName);
-
-        // 获取或创建域名记录
-        Domain domain = domainRepository.findByDomainName(domainName)
-            .orElse(new Domain());
-        domain.setDomainName(domainName);
         domain.setLastChecked(LocalDateTime.now());
 
         // 检查域名可访问性和证书状态
-        CertificateCheckResult checkResult = checkCertificateAccessibility(domainName);
-        
-        // 如果无法访问，设置错误状态并返回
+        // 配置了端点时并发检查全部端点，否则只检查域名的443端口
+        CertificateCheckResult checkResult = domain.getEndpoints() == null || domain.getEndpoints().isEmpty()
+            ? probe.apply(domainName)
+            : endpointProber.probe(domain, timeoutMs);
+        checkResult.applyTo(domain);
         if (!checkResult.isAccessible()) {
-            domain.setCertificateStatus("ERROR");
-            domain.setCertificateDetails(checkResult.getErrorMessage());
-            return domainRepository.save(domain);
-        }
-
-        // 更新证书信息
-        domain.setCertificateExpiryDate(checkResult.getExpiryDate());
-        domain.setCertificateDetails(checkResult.getCertificateDetails());
-        
-        // 简化状态判断：只要证书在有效期内就是VALID，否则就是ERROR
-        LocalDateTime now = LocalDateTime.now();
-        if (checkResult.getExpiryDate() != null && now.isBefore(checkResult.getExpiryDate())) {
-            domain.setCertificateStatus("VALID");
-        } else {
-            domain.setCertificateStatus("ERROR");
+            return checkResult;
         }
 
         log.info("Successfully checked certificate for domain: {}, status: {}, expires in {} days", 
             domainName, domain.getCertificateStatus(), checkResult.getDaysUntilExpiry());
-
-        // 保存域名信息
-        Domain savedDomain = domainRepository.save(domain);
-        
-        // 检查是否需要发送邮件通知（证书有效期小于30天）
-        if (savedDomain.getCertificateExpiryDate() != null && 
-            StringUtils.hasText(savedDomain.getNotificationEmail())) {
-            
-            long daysUntilExpiry = ChronoUnit.DAYS.between(
-                LocalDateTime.now(), 
-                savedDomain.getCertificateExpiryDate()
-            );
-            
-            // 只在证书有效期小于30天时发送邮件
-            if (daysUntilExpiry <= 30) {
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        emailService.sendExpiryNotification(savedDomain, (int)daysUntilExpiry);
-                    } catch (Exception e) {
-                        log.error("Failed to send notification email for domain: {}", savedDomain.getDomainName(), e);
-                    }
-                });
-            }
-        }
-        
-        return savedDomain;
+        return checkResult;
     }
 
-    private static class CertificateCheckResult {
-        private boolean accessible;
-        private String errorMessage;
-        private LocalDateTime expiryDate;
-        private String certificateDetails;
-        private long daysUntilExpiry;
-
-        public CertificateCheckResult() {
-            this.accessible = false;
+    // 检查是否需要发送到期通知，结果记在实体的 dueNotificationThreshold 上，写库后再入队。仅在拿到证书或证书已过期时通知
+    private void markNotificationIfDue(Domain domain) {
+        domain.setDueNotificationThreshold(null);
+        if (domain.getCertificateExpiryDate() == null || 
+            !StringUtils.hasText(domain.getNotificationEmail())) {
+            return;
         }
 
-        public boolean isAccessible() { return accessible; }
-        public String getErrorMessage() { return errorMessage; }
-        public LocalDateTime getExpiryDate() { return expiryDate; }
-        public String getCertificateDetails() { return certificateDetails; }
-        public long getDaysUntilExpiry() { return daysUntilExpiry; }
-
-        public void setAccessible(boolean accessible) { this.accessible = accessible; }
-        public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
-        public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
-        public void setCertificateDetails(String certificateDetails) { this.certificateDetails = certificateDetails; }
-        public void setDaysUntilExpiry(long daysUntilExpiry) { this.daysUntilExpiry = daysUntilExpiry; }
-    }
-
-    private CertificateCheckResult checkCertificateAccessibility(String domainName) {
-        CertificateCheckResult result = new CertificateCheckResult();
-        
-        try {
-            SSLContext sslContext = createTrustAllSSLContext();
-            SSLSocketFactory factory = sslContext.getSocketFactory();
-            
-            try (Socket socket = new Socket()) {
-                socket.setSoTimeout(READ_TIMEOUT);
-                InetSocketAddress address = new InetSocketAddress(domainName, 443);
-                socket.connect(address, CONNECT_TIMEOUT);
-                
-                try (SSLSocket sslSocket = (SSLSocket) factory.createSocket(socket, domainName, 443, true)) {
-                    sslSocket.setSoTimeout(READ_TIMEOUT);
-                    sslSocket.setEnabledProtocols(new String[] {"TLSv1.2", "TLSv1.3"}); // 添加TLS协议支持
-                    sslSocket.startHandshake();
-                    
-                    X509Certificate[] certs = (X509Certificate[]) sslSocket.getSession().getPeerCertificates();
-                    
-                    if (certs != null && certs.length > 0) {
-                        X509Certificate cert = certs[0];
-                        LocalDateTime expiryDate = cert.getNotAfter().toInstant()
-                            .atZone(ZoneId.systemDefault())
-                            .toLocalDateTime();
-                        LocalDateTime startDate = cert.getNotBefore().toInstant()
-                            .atZone(ZoneId.systemDefault())
-                            .toLocalDateTime();
-                        LocalDateTime now = LocalDateTime.now();
-                        
-                        // 检查证书是否在有效期内
-                        if (now.isBefore(startDate)) {
-                            result.setErrorMessage("Certificate is not yet valid");
-                            return result;
-                        }
-                        
-                        if (now.isAfter(expiryDate)) {
-                            result.setErrorMessage("Certificate has expired");
-                            return result;
-                        }
-                        
-                        // 构建证书详情
-                        StringBuilder details = new StringBuilder();
-                        details.append("Subject: ").append(cert.getSubjectX500Principal().getName()).append("\n");
-                        details.append("Issuer: ").append(cert.getIssuerX500Principal().getName()).append("\n");
-                        details.append("Valid From: ").append(cert.getNotBefore()).append("\n");
-                        details.append("Valid Until: ").append(cert.getNotAfter()).append("\n");
-                        details.append("Serial Number: ").append(cert.getSerialNumber()).append("\n");
-                        
-                        long daysUntilExpiry = ChronoUnit.DAYS.between(now, expiryDate);
-                        details.append("Days until expiry: ").append(daysUntilExpiry);
-                        
-                        result.setAccessible(true);
-                        result.setExpiryDate(expiryDate);
-                        result.setCertificateDetails(details.toString());
-                        result.setDaysUntilExpiry(daysUntilExpiry);
-                        
-                        log.debug("Certificate check successful for domain: {}, expires in {} days", 
-                            domainName, daysUntilExpiry);
-                        
-                        return result;
-                    } else {
-                        result.setErrorMessage("No certificates found for domain: " + domainName);
-                        return result;
-                    }
-                }
-            }
-        } catch (UnknownHostException e) {
-            result.setErrorMessage("DNS resolution failed: " + e.getMessage());
-            log.error("DNS resolution failed for domain {}: {}", domainName, e.getMessage());
-        } catch (SSLHandshakeException e) {
-            result.setErrorMessage("SSL handshake failed: " + e.getMessage());
-            log.error("SSL handshake failed for domain {}: {}", domainName, e.getMessage());
-        } catch (SocketTimeoutException e) {
-            result.setErrorMessage("Connection timed out: " + e.getMessage());
-            log.error("Connection timed out for domain {}: {}", domainName, e.getMessage());
-        } catch (Exception e) {
-            result.setErrorMessage("Certificate check failed: " + e.getMessage());
-            log.error("Certificate check failed for domain {}: {}", domainName, e.getMessage(), e);
+        long daysUntilExpiry = ChronoUnit.DAYS.between(
+            domain.getLastChecked(), 
+            domain.getCertificateExpiryDate()
+        );
+        if (!"VALID".equals(domain.getCertificateStatus()) && daysUntilExpiry >= 0) {
+            return;
         }
-        
-        return result;
+        domain.setDueNotificationThreshold(
+            notificationPolicy.dueThreshold(domain, daysUntilExpiry, domain.getLastChecked()));
     }
 
-    private boolean isPortOpen(String host, int port) {
-        try (Socket socket = new Socket()) {
-            socket.setSoTimeout(READ_TIMEOUT);
-            InetSocketAddress address = new InetSocketAddress(host, port);
-            log.debug("Checking if port {} is open on host {}", port, host);
-            socket.connect(address, CONNECT_TIMEOUT);
-            log.debug("Port {} is open on host {}", port, host);
-            return true;
-        } catch (Exception e) {
-            log.warn("Port {} is not accessible on host {}: {}", port, host, e.getMessage());
-            return false;
+    // 写库成功后发送本次检查判定需要的通知，发送成功后由 NotificationDispatcher 记录已通知的档位
+    private void notifyIfDue(Domain savedDomain, Integer dueThreshold) {
+        if (dueThreshold == null) {
+            return;
         }
-    }
-
-    private SSLContext createTrustAllSSLContext() throws NoSuchAlgorithmException, KeyManagementException {
-        SSLContext sslContext = SSLContext.getInstance("TLS");
-        TrustManager[] trustAllCerts = new TrustManager[]{
-            new X509TrustManager() {
-                public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
-                public void checkClientTrusted(X509Certificate[] certs, String authType) {}
-                public void checkServerTrusted(X509Certificate[] certs, String authType) {}
-            }
-        };
-        sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-        return sslContext;
+        long daysUntilExpiry = ChronoUnit.DAYS.between(
+            LocalDateTime.now(), 
+            savedDomain.getCertificateExpiryDate()
+        );
+        notificationDispatcher.enqueue(savedDomain, (int)daysUntilExpiry, dueThreshold);
     }
 
     private Domain handleCertificateError(Domain domain, String errorMessage) {
         domain.setCertificateStatus("ERROR");
         domain.setLastChecked(LocalDateTime.now());
         domain.setCertificateDetails(errorMessage);
-        return domainRepository.save(domain);
+        domain.setDueNotificationThreshold(null);
+        scheduleNextCheck(domain);
+        historyRecorder.record(domain, null, -1);
+        return domain;
+    }
+
+    // 更新连续失败次数并计算下一次检查时间
+    private void scheduleNextCheck(Domain domain) {
+        if ("ERROR".equals(domain.getCertificateStatus())) {
+            domain.setConsecutiveFailures(domain.getConsecutiveFailures() + 1);
+        } else {
+            domain.setConsecutiveFailures(0);
+        }
+        domain.setNextCheckAt(checkIntervalPolicy.nextCheckAt(domain, domain.getLastChecked()));
     }
 
     @Scheduled(cron = "0 0 */12 * * *") // Run every 12 hours
     public void checkAllCertificates() {
+        if (!"fixed".equals(scheduleMode)) {
+            log.debug("Skipping fixed certificate sweep, schedule mode is {}", scheduleMode);
+            return;
+        }
         List<Domain> domains = domainRepository.findAll();
-        for (Domain domain : domains) {
-            try {
-                checkCertificate(domain.getDomainName(), false);
-            } catch (Exception e) {
-                log.error("Failed to check certificate for domain: " + domain.getDomainName(), e);
-            }
+        sweepDomains(domains);
+    }
+
+    // fixed 模式没有按 nextCheckAt 轮询的调度器，新导入的域名在这里分批做首次检查；引擎忙时下次轮询再取
+    @Scheduled(fixedDelayString = "${certificate.schedule.poll-interval-ms:60000}")
+    public void checkNewDomains() {
+        if (!"fixed".equals(scheduleMode)) {
+            return;
+        }
+        List<Domain> domains = domainRepository.findNeverChecked(PageRequest.of(0, newDomainBatchSize));
+        if (!domains.isEmpty()) {
+            log.info("Running first check for {} new domains", domains.size());
+            sweepDomains(domains);
         }
     }
 
@@ -432,7 +407,7 @@ public class CertificateService {
                 .atZone(ZoneId.systemDefault())
                 .toLocalDateTime());
             domain.setCertificateDetails("Renewed certificate: " + cert.getSubjectX500Principal().getName());
-            domainRepository.save(domain);
+            statusCache.put(domainRepository.save(domain));
             
             log.info("Certificate renewal completed for domain: {}", domain.getDomainName());
         } catch (AcmeException e) {
@@ -449,7 +424,7 @@ public class CertificateService {
 
     public void doCheckCertificate(Domain domain) {
         try {
-            doCheckCertificate(domain.getDomainName());
+            checkCertificate(domain.getDomainName(), false);
         } catch (Exception e) {
             log.error("Failed to check certificate for domain: " + domain.getDomainName(), e);
         }
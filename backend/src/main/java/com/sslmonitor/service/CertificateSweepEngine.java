@@ -0,0 +1,389 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.SweepProgress;
+import com.sslmonitor.model.Domain;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 并发执行批量证书检查：全局并发上限 + 每个目标IP的并发上限。
+ * 提交线程先拿到全局许可再提交任务，工作线程不会阻塞在许可上；
+ * 目标IP已满的域名排进该IP的等待队列并交还全局许可，由同一IP上完成检查的线程接着执行。
+ */
+@Slf4j
+@Service
+public class CertificateSweepEngine {
+
+    // sweep 被中断后等待正在进行的检查结束的最长时间
+    private static final long ABORT_WAIT_SECONDS = 30;
+
+    @Value("${certificate.sweep.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${certificate.sweep.per-host-concurrency:4}")
+    private int perHostConcurrency;
+
+    @Value("${certificate.sweep.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    @Value("${certificate.sweep.write-batch-size:50}")
+    private int writeBatchSize;
+
+    private ExecutorService executor;
+    private Semaphore globalPermits;
+    private final Map<String, HostSlots> hostSlots = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile SweepReport lastReport;
+
+    private final ProbeRateLimiter rateLimiter;
+    private final DomainResolver resolver;
+    private final CheckMetrics metrics;
+    private final DomainEventBus eventBus;
+
+    public CertificateSweepEngine(ProbeRateLimiter rateLimiter, DomainResolver resolver, CheckMetrics metrics,
+                                  DomainEventBus eventBus) {
+        this.rateLimiter = rateLimiter;
+        this.resolver = resolver;
+        this.metrics = metrics;
+        this.eventBus = eventBus;
+    }
+
+    @PostConstruct
+    public void init() {
+        globalPermits = new Semaphore(maxConcurrency);
+        executor = createExecutor();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 对所有域名并发执行检查，阻塞直到本轮全部完成。
+     * 检查结果攒够 write-batch-size 条后交给 writer 批量写回，本轮结束时写回剩余部分。
+     * check 返回 null 表示本次没有实际检查（如熔断中被推迟），不写回也不计入成功或失败。
+     * 若上一轮仍在执行则跳过本轮，返回null。
+     */
+    public SweepReport sweep(List<Domain> domains, Function<Domain, Domain> check, Consumer<List<Domain>> writer) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous certificate sweep is still running, skipping this round");
+            return null;
+        }
+
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            AtomicInteger succeeded = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger postponed = new AtomicInteger();
+            // 每批结果写库后推送一次进度
+            ResultBuffer buffer = new ResultBuffer(writer, () -> eventBus.publishSweep(new SweepProgress(
+                SweepProgress.RUNNING, startedAt, domains.size(), succeeded.get(), failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))));
+
+            log.info("Starting certificate sweep for {} domains (max concurrency {}, per host {})",
+                domains.size(), maxConcurrency, perHostConcurrency);
+            eventBus.publishSweep(new SweepProgress(SweepProgress.STARTED, startedAt, domains.size(), 0, 0, 0));
+
+            SweepRun run = new SweepRun(check, buffer, domains.size(), succeeded, failed, postponed);
+            int submitted = 0;
+            try {
+                for (Domain domain : domains) {
+                    globalPermits.acquire();
+                    executor.execute(() -> run.start(domain));
+                    submitted++;
+                }
+                run.remaining.await();
+            } catch (InterruptedException e) {
+                // 还没提交和还在IP队列里的域名不再检查；等正在进行的检查结束，把它们的结果一并写回
+                run.aborted = true;
+                for (int i = submitted; i < domains.size(); i++) {
+                    run.remaining.countDown();
+                }
+                awaitInFlight(run);
+                Thread.currentThread().interrupt();
+            }
+            buffer.flush();
+
+            SweepReport report = new SweepReport(startedAt, Duration.ofNanos(System.nanoTime() - start),
+                domains.size(), succeeded.get(), failed.get(), postponed.get(),
+                Duration.ofNanos(buffer.probeNanos.get()), Duration.ofNanos(buffer.writeNanos.get()));
+            lastReport = report;
+            metrics.recordSweep(report);
+            log.info("Certificate sweep finished: {}", report);
+            eventBus.publishSweep(new SweepProgress(SweepProgress.FINISHED, startedAt, report.getTotal(),
+                report.getSucceeded(), report.getFailed(), report.getDuration().toMillis()));
+            return report;
+        } finally {
+            hostSlots.clear();
+            running.set(false);
+        }
+    }
+
+    // 中断后有限地等待已开始的检查结束；超时仍未结束的检查结果不会写回
+    private void awaitInFlight(SweepRun run) {
+        try {
+            if (!run.remaining.await(ABORT_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Certificate sweep aborted with {} checks still running, their results are discarded",
+                    run.remaining.getCount());
+            }
+        } catch (InterruptedException e) {
+            log.warn("Certificate sweep interrupted again while waiting for running checks");
+        }
+    }
+
+    /**
+     * 一次检查内额外的握手（如多端点域名）占用一个全局并发名额；拿不到时返回 false，
+     * 调用方应在自己已占用的名额内串行执行，而不是等待，避免持有名额的同时再等名额
+     */
+    public boolean tryAcquirePermit() {
+        return globalPermits.tryAcquire();
+    }
+
+    public void releasePermit() {
+        globalPermits.release();
+    }
+
+    public SweepReport getLastReport() {
+        return lastReport;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // 一轮 sweep 的执行状态；每个域名完成（含失败和推迟）时计数减一，排队等待IP名额时不计
+    private class SweepRun {
+        private final Function<Domain, Domain> check;
+        private final ResultBuffer buffer;
+        private final CountDownLatch remaining;
+        private final AtomicInteger succeeded;
+        private final AtomicInteger failed;
+        private final AtomicInteger postponed;
+        private volatile boolean aborted;
+
+        SweepRun(Function<Domain, Domain> check, ResultBuffer buffer, int total, AtomicInteger succeeded,
+                 AtomicInteger failed, AtomicInteger postponed) {
+            this.check = check;
+            this.buffer = buffer;
+            this.remaining = new CountDownLatch(total);
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.postponed = postponed;
+        }
+
+        // 在已持有全局许可的工作线程中执行：解析目标IP，IP名额已满时排队并交还全局许可
+        void start(Domain domain) {
+            HostSlots slots = hostSlots.computeIfAbsent(hostKey(domain.getDomainName()),
+                key -> new HostSlots(perHostConcurrency));
+            if (!slots.enter(domain)) {
+                globalPermits.release();
+                return;
+            }
+            // 做完一个域名后直接接手同一IP排队中的下一个，继续使用当前的全局许可和IP名额
+            try {
+                Domain next = domain;
+                while (next != null) {
+                    if (aborted) {
+                        slots.drain().forEach(skipped -> remaining.countDown());
+                        remaining.countDown();
+                        slots.exit();
+                        return;
+                    }
+                    runCheck(next);
+                    next = slots.next();
+                }
+            } finally {
+                globalPermits.release();
+            }
+        }
+
+        private void runCheck(Domain domain) {
+            Domain checked;
+            try {
+                // 拿到并发名额后再按令牌桶限速，保证实际发起探测的速率平稳
+                rateLimiter.acquire();
+                long probeStart = System.nanoTime();
+                try {
+                    checked = check.apply(domain);
+                } finally {
+                    buffer.probeNanos.addAndGet(System.nanoTime() - probeStart);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted = true;
+                failed.incrementAndGet();
+                remaining.countDown();
+                return;
+            } catch (Exception e) {
+                fail(domain, e);
+                return;
+            }
+            if (checked == null) {
+                postponed.incrementAndGet();
+            } else {
+                if ("ERROR".equals(checked.getCertificateStatus())) {
+                    failed.incrementAndGet();
+                } else {
+                    succeeded.incrementAndGet();
+                }
+                buffer.add(checked);
+            }
+            remaining.countDown();
+        }
+
+        private void fail(Domain domain, Exception e) {
+            log.error("Failed to check certificate for domain: " + domain.getDomainName(), e);
+            failed.incrementAndGet();
+            remaining.countDown();
+        }
+    }
+
+    // 同一目标IP的并发名额和等待队列
+    private static class HostSlots {
+        private final int limit;
+        private final Queue<Domain> waiting = new ArrayDeque<>();
+        private int active;
+
+        HostSlots(int limit) {
+            this.limit = limit;
+        }
+
+        // 有空闲名额时占用并返回 true，否则排队
+        synchronized boolean enter(Domain domain) {
+            if (active < limit) {
+                active++;
+                return true;
+            }
+            waiting.add(domain);
+            return false;
+        }
+
+        // 取出排队中的下一个域名沿用当前名额；没有时释放名额
+        synchronized Domain next() {
+            Domain next = waiting.poll();
+            if (next == null) {
+                active--;
+            }
+            return next;
+        }
+
+        synchronized List<Domain> drain() {
+            List<Domain> drained = new ArrayList<>(waiting);
+            waiting.clear();
+            return drained;
+        }
+
+        synchronized void exit() {
+            active--;
+        }
+    }
+
+    // 按解析后的IP限流；解析失败时退化为按域名限流
+    private String hostKey(String domainName) {
+        try {
+            return resolver.resolve(domainName).getHostAddress();
+        } catch (Exception e) {
+            return domainName;
+        }
+    }
+
+    private ExecutorService createExecutor() {
+        if (virtualThreads) {
+            try {
+                // 运行在 Java 21+ 时使用虚拟线程，Java 17 下回退到固定线程池
+                ExecutorService virtual = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+                log.info("Certificate sweep engine using virtual threads");
+                return virtual;
+            } catch (ReflectiveOperationException e) {
+                log.info("Virtual threads not available on this JVM, using a pool of {} threads", maxConcurrency);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "cert-sweep-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // 提交前已按全局许可限流，线程数与全局并发上限一致
+        return Executors.newFixedThreadPool(maxConcurrency, threadFactory);
+    }
+
+    // 收集检查结果并按批写回，同时统计探测耗时和写库耗时
+    private class ResultBuffer {
+        private final Consumer<List<Domain>> writer;
+        private final Runnable onWritten;
+        private final List<Domain> pending = new ArrayList<>();
+        private final AtomicLong probeNanos = new AtomicLong();
+        private final AtomicLong writeNanos = new AtomicLong();
+
+        ResultBuffer(Consumer<List<Domain>> writer, Runnable onWritten) {
+            this.writer = writer;
+            this.onWritten = onWritten;
+        }
+
+        void add(Domain domain) {
+            List<Domain> batch = null;
+            synchronized (pending) {
+                pending.add(domain);
+                if (pending.size() >= writeBatchSize) {
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                }
+            }
+            if (batch != null) {
+                write(batch);
+            }
+        }
+
+        void flush() {
+            List<Domain> batch;
+            synchronized (pending) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+
+        private void write(List<Domain> batch) {
+            long writeStart = System.nanoTime();
+            try {
+                writer.accept(batch);
+            } catch (Exception e) {
+                log.error("Failed to write {} certificate check results", batch.size(), e);
+            } finally {
+                writeNanos.addAndGet(System.nanoTime() - writeStart);
+            }
+            onWritten.run();
+        }
+    }
+}
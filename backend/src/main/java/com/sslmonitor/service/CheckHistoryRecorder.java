@@ -0,0 +1,450 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.CertificateRecord;
+import com.sslmonitor.model.CheckHistory;
+import com.sslmonitor.model.Domain;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 检查历史写入管道：检查线程只把记录放进有界队列，由独立的写线程攒批后用 JDBC 批量插入。
+ * 证书链中的每张证书按指纹去重保存DER原文，内存中缓存最近用到的、已保存原文的指纹到ID的映射：
+ * 命中缓存的证书不再把DER放进队列，大部分批次也不需要查询 certificates 表。
+ */
+@Slf4j
+@Service
+public class CheckHistoryRecorder {
+
+    private static final String INSERT_HISTORY_SQL =
+        "INSERT INTO check_history (domain_id, checked_at, status, certificate_id, latency_ms, error_class) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CERTIFICATE_SQL =
+        "INSERT INTO certificates (fingerprint, subject, issuer, serial_number, not_before, not_after, " +
+        "subject_alt_names, first_seen, last_seen, der) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_DER_SQL = "UPDATE certificates SET der = ? WHERE id = ? AND der IS NULL";
+    private static final String UPDATE_LAST_SEEN_SQL = "UPDATE certificates SET last_seen = ? WHERE id = ?";
+
+    @Value("${certificate.history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${certificate.history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${certificate.history.batch-size:500}")
+    private int batchSize;
+
+    // 取到第一条记录后最多再等待这么久，凑够一批再写
+    @Value("${certificate.history.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${certificate.history.certificate-cache-size:10000}")
+    private int certificateCacheSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CheckMetrics metrics;
+    private BlockingQueue<PendingCheck> queue;
+    private Thread worker;
+    // 已经保存了DER原文的证书，检查线程读取、写线程更新
+    private Map<String, Long> certificateIds;
+    // 今天已经更新过 last_seen 的证书，只在写线程中访问
+    private final Set<Long> seenToday = new HashSet<>();
+    private LocalDate seenDay;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong certificatesStored = new AtomicLong();
+
+    public CheckHistoryRecorder(JdbcTemplate jdbcTemplate, CheckMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        certificateIds = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > certificateCacheSize;
+            }
+        });
+        MeterRegistry registry = metrics.getRegistry();
+        registry.gauge("sslmonitor.history.queue.depth", queue, BlockingQueue::size);
+        FunctionCounter.builder("sslmonitor.history.written", written, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.history.dropped", dropped, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.history.failed", failed, AtomicLong::doubleValue).register(registry);
+        worker = new Thread(this::runLoop, "check-history-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // 停止时把队列里剩余的记录写完再退出
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 记录一次检查及拿到的证书链，不阻塞调用方；队列已满时丢弃并计数。尚未写库的新域名没有ID，不记录。
+     * 关闭历史记录时仍然保存证书链，供证书链查询使用。
+     */
+    public void record(Domain domain, CertificateCheckResult result, long latencyNanos) {
+        if (domain.getId() == null) {
+            return;
+        }
+
+        CheckHistory history = enabled ? toHistory(domain, result, latencyNanos) : null;
+        List<CertificateRecord> certificates = result == null ? List.of() : toCertificateRecords(result);
+        if (history == null && certificates.isEmpty()) {
+            return;
+        }
+        if (!queue.offer(new PendingCheck(history, certificates))) {
+            dropped.incrementAndGet();
+            log.warn("Check history queue is full, dropping history for domain: {}", domain.getDomainName());
+            return;
+        }
+        recorded.incrementAndGet();
+    }
+
+    // 证书被清理后调用，避免继续引用已删除的证书
+    public void clearCertificateCache() {
+        certificateIds.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("recorded", recorded.get());
+        stats.put("dropped", dropped.get());
+        stats.put("written", written.get());
+        stats.put("failed", failed.get());
+        stats.put("certificatesStored", certificatesStored.get());
+        return stats;
+    }
+
+    private void runLoop() {
+        List<PendingCheck> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingCheck next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Unexpected error in check history writer", e);
+                batch.clear();
+            }
+        }
+
+        // 退出前写完已取出的和队列中剩余的记录
+        queue.drainTo(batch);
+        for (int i = 0; i < batch.size(); i += batchSize) {
+            write(batch.subList(i, Math.min(batch.size(), i + batchSize)));
+        }
+    }
+
+    private void write(List<PendingCheck> batch) {
+        try {
+            Map<String, Long> ids = certificateIds(batch);
+            touch(new HashSet<>(ids.values()));
+            List<CheckHistory> rows = new ArrayList<>(batch.size());
+            for (PendingCheck pending : batch) {
+                if (pending.history == null) {
+                    continue;
+                }
+                if (!pending.certificates.isEmpty()) {
+                    pending.history.setCertificateId(ids.get(pending.certificates.get(0).getFingerprint()));
+                }
+                rows.add(pending.history);
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.getDomainId());
+                ps.setTimestamp(2, Timestamp.valueOf(row.getCheckedAt()));
+                ps.setString(3, row.getStatus());
+                ps.setObject(4, row.getCertificateId(), Types.BIGINT);
+                ps.setObject(5, row.getLatencyMs(), Types.INTEGER);
+                ps.setString(6, row.getErrorClass());
+            });
+            written.addAndGet(rows.size());
+        } catch (DataAccessException e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} check history rows: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 取得本批用到的证书ID：先查内存缓存，再批量查询；不存在的证书插入，已存在但缺少DER原文的补上原文
+     */
+    private Map<String, Long> certificateIds(List<PendingCheck> batch) {
+        Map<String, Long> ids = new HashMap<>();
+        Map<String, CertificateRecord> missing = new LinkedHashMap<>();
+        for (PendingCheck pending : batch) {
+            for (CertificateRecord certificate : pending.certificates) {
+                String fingerprint = certificate.getFingerprint();
+                Long id = certificateIds.get(fingerprint);
+                if (id != null) {
+                    ids.put(fingerprint, id);
+                } else {
+                    missing.merge(fingerprint, certificate, CheckHistoryRecorder::merge);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        Map<String, StoredCertificate> found = selectStored(missing.keySet());
+        List<CertificateRecord> toInsert = new ArrayList<>();
+        List<Object[]> derUpdates = new ArrayList<>();
+        missing.forEach((fingerprint, certificate) -> {
+            StoredCertificate stored = found.get(fingerprint);
+            if (stored == null) {
+                toInsert.add(certificate);
+            } else if (!stored.hasDer && certificate.getDer() != null) {
+                derUpdates.add(new Object[] {certificate.getDer(), stored.id});
+                found.put(fingerprint, new StoredCertificate(stored.id, true));
+            }
+        });
+        if (!derUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_DER_SQL, derUpdates);
+        }
+        if (!toInsert.isEmpty()) {
+            insertCertificates(toInsert);
+            found.putAll(selectStored(toInsert.stream().map(CertificateRecord::getFingerprint).toList()));
+        }
+
+        found.forEach((fingerprint, stored) -> {
+            ids.put(fingerprint, stored.id);
+            if (stored.hasDer) {
+                certificateIds.put(fingerprint, stored.id);
+            }
+        });
+        return ids;
+    }
+
+    // 每张证书每天只更新一次 last_seen
+    private void touch(Collection<Long> ids) {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(seenDay)) {
+            seenToday.clear();
+            seenDay = today;
+        }
+        List<Object[]> updates = new ArrayList<>();
+        for (Long id : ids) {
+            if (seenToday.add(id)) {
+                updates.add(new Object[] {Date.valueOf(today), id});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_SEEN_SQL, updates);
+        }
+    }
+
+    private Map<String, StoredCertificate> selectStored(Collection<String> fingerprints) {
+        String placeholders = String.join(",", Collections.nCopies(fingerprints.size(), "?"));
+        Map<String, StoredCertificate> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT id, fingerprint, CASE WHEN der IS NULL THEN 0 ELSE 1 END AS has_der " +
+                "FROM certificates WHERE fingerprint IN (" + placeholders + ")",
+            rs -> {
+                stored.put(rs.getString("fingerprint"),
+                    new StoredCertificate(rs.getLong("id"), rs.getInt("has_der") == 1));
+            }, fingerprints.toArray());
+        return stored;
+    }
+
+    // 批量插入；整批失败（如其他实例刚插入了同一张证书）时逐行插入并忽略重复
+    private void insertCertificates(List<CertificateRecord> certificates) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_CERTIFICATE_SQL, certificates, certificates.size(),
+                (ps, certificate) -> {
+                    ps.setString(1, certificate.getFingerprint());
+                    ps.setString(2, certificate.getSubject());
+                    ps.setString(3, certificate.getIssuer());
+                    ps.setString(4, certificate.getSerialNumber());
+                    ps.setTimestamp(5, toTimestamp(certificate.getNotBefore()));
+                    ps.setTimestamp(6, toTimestamp(certificate.getNotAfter()));
+                    ps.setString(7, certificate.getSubjectAltNames());
+                    ps.setTimestamp(8, toTimestamp(certificate.getFirstSeen()));
+                    ps.setDate(9, Date.valueOf(certificate.getFirstSeen().toLocalDate()));
+                    ps.setBytes(10, certificate.getDer());
+                });
+            certificatesStored.addAndGet(certificates.size());
+            return;
+        } catch (DataAccessException e) {
+            log.debug("Batch insert of {} certificates failed, retrying row by row: {}",
+                certificates.size(), e.getMessage());
+        }
+
+        for (CertificateRecord certificate : certificates) {
+            try {
+                jdbcTemplate.update(INSERT_CERTIFICATE_SQL, certificate.getFingerprint(), certificate.getSubject(),
+                    certificate.getIssuer(), certificate.getSerialNumber(), toTimestamp(certificate.getNotBefore()),
+                    toTimestamp(certificate.getNotAfter()), certificate.getSubjectAltNames(),
+                    toTimestamp(certificate.getFirstSeen()), Date.valueOf(certificate.getFirstSeen().toLocalDate()),
+                    certificate.getDer());
+                certificatesStored.incrementAndGet();
+            } catch (DataAccessException e) {
+                log.debug("Certificate {} was not inserted: {}", certificate.getFingerprint(), e.getMessage());
+            }
+        }
+    }
+
+    // 拿到了证书但状态不是VALID时只可能是已过期；没有探测结果说明重试后仍然抛出了异常
+    private static String errorClass(CertificateCheckResult result) {
+        if (result == null) {
+            return "check_error";
+        }
+        if (result.getErrorClass() != null) {
+            return result.getErrorClass();
+        }
+        return result.isAccessible() ? "expired" : "other";
+    }
+
+    private static CheckHistory toHistory(Domain domain, CertificateCheckResult result, long latencyNanos) {
+        CheckHistory history = new CheckHistory();
+        history.setDomainId(domain.getId());
+        history.setCheckedAt(domain.getLastChecked() != null ? domain.getLastChecked() : LocalDateTime.now());
+        history.setStatus(domain.getCertificateStatus());
+        history.setLatencyMs(latencyNanos < 0 ? null : (int) TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        if (!"VALID".equals(domain.getCertificateStatus())) {
+            history.setErrorClass(errorClass(result));
+        }
+        return history;
+    }
+
+    /**
+     * 证书链中的每张证书一条记录，服务端证书在前并带上常用字段；已经保存过原文的证书不再携带DER
+     */
+    private List<CertificateRecord> toCertificateRecords(CertificateCheckResult result) {
+        List<String> fingerprints = result.getChainFingerprints();
+        if (fingerprints.isEmpty()) {
+            return result.getFingerprint() == null ? List.of() : List.of(toLeafRecord(result, null));
+        }
+
+        List<CertificateRecord> certificates = new ArrayList<>(fingerprints.size());
+        for (int i = 0; i < fingerprints.size(); i++) {
+            String fingerprint = fingerprints.get(i);
+            byte[] der = certificateIds.containsKey(fingerprint) ? null : result.getChain().get(i);
+            if (i == 0) {
+                certificates.add(toLeafRecord(result, der));
+            } else {
+                CertificateRecord certificate = new CertificateRecord();
+                certificate.setFingerprint(fingerprint);
+                certificate.setFirstSeen(LocalDateTime.now());
+                certificate.setDer(der);
+                certificates.add(certificate);
+            }
+        }
+        return certificates;
+    }
+
+    private static CertificateRecord toLeafRecord(CertificateCheckResult result, byte[] der) {
+        CertificateRecord certificate = new CertificateRecord();
+        certificate.setFingerprint(result.getFingerprint());
+        certificate.setSubject(truncate(result.getSubject(), 512));
+        certificate.setIssuer(truncate(result.getIssuer(), 512));
+        certificate.setSerialNumber(truncate(result.getSerialNumber(), 64));
+        certificate.setNotBefore(result.getNotBefore());
+        certificate.setNotAfter(result.getExpiryDate());
+        certificate.setSubjectAltNames(truncate(String.join(",", result.getSubjectAltNames()), 4096));
+        certificate.setFirstSeen(LocalDateTime.now());
+        certificate.setDer(der);
+        return certificate;
+    }
+
+    // 同一批中同一张证书出现多次时合并，保留DER原文和服务端证书的字段
+    private static CertificateRecord merge(CertificateRecord first, CertificateRecord second) {
+        if (first.getDer() == null) {
+            first.setDer(second.getDer());
+        }
+        if (first.getSubject() == null && second.getSubject() != null) {
+            first.setSubject(second.getSubject());
+            first.setIssuer(second.getIssuer());
+            first.setSerialNumber(second.getSerialNumber());
+            first.setNotBefore(second.getNotBefore());
+            first.setNotAfter(second.getNotAfter());
+            first.setSubjectAltNames(second.getSubjectAltNames());
+        }
+        return first;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    private static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength);
+    }
+
+    private static class PendingCheck {
+        // 关闭历史记录时为空，只保存证书
+        private final CheckHistory history;
+        private final List<CertificateRecord> certificates;
+
+        PendingCheck(CheckHistory history, List<CertificateRecord> certificates) {
+            this.history = history;
+            this.certificates = certificates;
+        }
+    }
+
+    private static class StoredCertificate {
+        private final long id;
+        private final boolean hasDer;
+
+        StoredCertificate(long id, boolean hasDer) {
+            this.id = id;
+            this.hasDer = hasDer;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.CheckHistoryEntry;
+import com.sslmonitor.model.MaintenanceWatermark;
+import com.sslmonitor.repository.CertificateRecordRepository;
+import com.sslmonitor.repository.CheckHistoryRepository;
+import com.sslmonitor.repository.MaintenanceWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 检查历史的查询与维护。
+ * 每天凌晨执行一次：超过 retention-days 的记录直接删除；超过 compact-after-days 的记录按天压缩，
+ * 每个域名只保留当天第一条和状态、证书或失败原因发生变化的记录，之后每个域名每天通常只剩一行。
+ * 已压缩到哪一天记在 maintenance_watermarks 表，错过的日子（停机、维护失败）下次一并补上。
+ */
+@Slf4j
+@Service
+public class CheckHistoryService {
+
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 5000;
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final String SELECT_WINDOW_SQL =
+        "SELECT id, domain_id, status, certificate_id, error_class FROM check_history " +
+        "WHERE domain_id > ? AND domain_id <= ? AND checked_at >= ? AND checked_at < ? " +
+        "ORDER BY domain_id, checked_at, id";
+    private static final String COMPACTION_WATERMARK = "check_history_compaction";
+
+    @Value("${certificate.history.retention-days:180}")
+    private int retentionDays;
+
+    @Value("${certificate.history.compact-after-days:7}")
+    private int compactAfterDays;
+
+    // 清理和压缩时每次删除的行数，避免单个大事务长时间锁表
+    @Value("${certificate.history.delete-batch-size:1000}")
+    private int deleteBatchSize;
+
+    // 压缩时每次加载这么多个域名ID范围内的记录
+    @Value("${certificate.history.compact-domain-chunk:1000}")
+    private int compactDomainChunk;
+
+    private final CheckHistoryRepository historyRepository;
+    private final CertificateRecordRepository certificateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CheckHistoryRecorder historyRecorder;
+    private final MaintenanceWatermarkRepository watermarkRepository;
+
+    public CheckHistoryService(CheckHistoryRepository historyRepository,
+                               CertificateRecordRepository certificateRepository, JdbcTemplate jdbcTemplate,
+                               CheckHistoryRecorder historyRecorder,
+                               MaintenanceWatermarkRepository watermarkRepository) {
+        this.historyRepository = historyRepository;
+        this.certificateRepository = certificateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.historyRecorder = historyRecorder;
+        this.watermarkRepository = watermarkRepository;
+    }
+
+    /**
+     * 查询一个域名在 [from, to) 内的检查记录，最新的在前；未指定范围时返回最近30天
+     */
+    public List<CheckHistoryEntry> findHistory(Long domainId, LocalDateTime from, LocalDateTime to, Integer limit) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusSeconds(1);
+        LocalDateTime start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return historyRepository.findEntries(domainId, start, end, PageRequest.of(0, size));
+    }
+
+    @Scheduled(cron = "${certificate.history.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+        try {
+            LocalDate retentionStart = today.minusDays(retentionDays);
+            int purged = purgeBefore(retentionStart.atStartOfDay());
+            int compacted = compactThrough(today.minusDays(compactAfterDays + 1L), retentionStart);
+            int certificates = purgeUnusedCertificates(today.minusDays(retentionDays));
+            log.info("Check history maintenance finished: {} expired rows purged, {} rows compacted, " +
+                "{} unused certificates removed", purged, compacted, certificates);
+        } catch (Exception e) {
+            log.error("Check history maintenance failed", e);
+        }
+    }
+
+    private int purgeBefore(LocalDateTime cutoff) {
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = historyRepository.findIdsCheckedBefore(cutoff, PageRequest.of(0, deleteBatchSize));
+            if (!ids.isEmpty()) {
+                total += historyRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == deleteBatchSize);
+        return total;
+    }
+
+    /**
+     * 从上次压缩到的后一天起逐天压缩到 cutoff（含），每压缩完一天就推进水位；
+     * 没有水位时从最早的记录开始，水位早于保留期时从保留期起点开始（更早的记录已被清理）
+     */
+    private int compactThrough(LocalDate cutoff, LocalDate retentionStart) {
+        LocalDate day = watermarkRepository.findById(COMPACTION_WATERMARK)
+            .map(watermark -> watermark.getLastDay().plusDays(1))
+            .orElseGet(() -> {
+                LocalDateTime oldest = historyRepository.findMinCheckedAt();
+                return oldest != null ? oldest.toLocalDate() : null;
+            });
+        if (day == null) {
+            return 0;
+        }
+        if (day.isBefore(retentionStart)) {
+            day = retentionStart;
+        }
+
+        int total = 0;
+        for (; !day.isAfter(cutoff); day = day.plusDays(1)) {
+            total += compactDay(day);
+            MaintenanceWatermark watermark = new MaintenanceWatermark();
+            watermark.setName(COMPACTION_WATERMARK);
+            watermark.setLastDay(day);
+            watermarkRepository.save(watermark);
+        }
+        return total;
+    }
+
+    /**
+     * 压缩某一天的记录：按域名ID分段加载，同一域名与前一条记录相同的行删除
+     */
+    private int compactDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        Long maxDomainId = historyRepository.findMaxDomainIdBetween(from, to);
+        if (maxDomainId == null) {
+            return 0;
+        }
+
+        int total = 0;
+        for (long lower = 0; lower < maxDomainId; lower += compactDomainChunk) {
+            List<Long> redundant = new ArrayList<>();
+            Row[] previous = new Row[1];
+            jdbcTemplate.query(SELECT_WINDOW_SQL, rs -> {
+                Row row = new Row(rs.getLong("id"), rs.getLong("domain_id"), rs.getString("status"),
+                    rs.getObject("certificate_id", Long.class), rs.getString("error_class"));
+                if (row.sameStateAs(previous[0])) {
+                    redundant.add(row.id);
+                } else {
+                    previous[0] = row;
+                }
+            }, lower, lower + compactDomainChunk, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+            for (int i = 0; i < redundant.size(); i += deleteBatchSize) {
+                total += historyRepository.deleteByIdIn(
+                    redundant.subList(i, Math.min(redundant.size(), i + deleteBatchSize)));
+            }
+        }
+        return total;
+    }
+
+    // 只删除整个保留期内都没有再出现、且没有任何记录引用的证书（包括不再使用的中间证书）
+    private int purgeUnusedCertificates(LocalDate cutoff) {
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = certificateRepository.findUnreferencedIds(cutoff, PageRequest.of(0, deleteBatchSize));
+            if (!ids.isEmpty()) {
+                total += certificateRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == deleteBatchSize);
+        if (total > 0) {
+            historyRecorder.clearCertificateCache();
+        }
+        return total;
+    }
+
+    private static class Row {
+        private final long id;
+        private final long domainId;
+        private final String status;
+        private final Long certificateId;
+        private final String errorClass;
+
+        Row(long id, long domainId, String status, Long certificateId, String errorClass) {
+            this.id = id;
+            this.domainId = domainId;
+            this.status = status;
+            this.certificateId = certificateId;
+            this.errorClass = errorClass;
+        }
+
+        boolean sameStateAs(Row other) {
+            return other != null
+                && domainId == other.domainId
+                && Objects.equals(status, other.status)
+                && Objects.equals(certificateId, other.certificateId)
+                && Objects.equals(errorClass, other.errorClass);
+        }
+    }
+}
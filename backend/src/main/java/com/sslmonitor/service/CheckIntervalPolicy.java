@@ -0,0 +1,117 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 根据证书到期时间、状态和连续失败次数计算域名的下一次检查时间。
+ * 快到期或异常的域名检查得更频繁，长期有效的证书则很少检查。
+ * spread 模式下改为排到域名在下一个检查周期里的固定时间槽（域名哈希 + 每周期的抖动），
+ * 调度器只需按 nextCheckAt 的索引取出到期的域名。
+ */
+@Component
+public class CheckIntervalPolicy {
+
+    @Value("${certificate.schedule.mode:fixed}")
+    private String scheduleMode;
+
+    @Value("${certificate.schedule.spread.interval-hours:12}")
+    private long spreadIntervalHours;
+
+    @Value("${certificate.schedule.spread.jitter-seconds:300}")
+    private long spreadJitterSeconds;
+
+    @Value("${certificate.schedule.adaptive.urgent-interval-minutes:60}")
+    private long urgentIntervalMinutes;
+
+    @Value("${certificate.schedule.adaptive.expiring-interval-minutes:360}")
+    private long expiringIntervalMinutes;
+
+    @Value("${certificate.schedule.adaptive.normal-interval-minutes:1440}")
+    private long normalIntervalMinutes;
+
+    @Value("${certificate.schedule.adaptive.relaxed-interval-minutes:4320}")
+    private long relaxedIntervalMinutes;
+
+    @Value("${certificate.schedule.adaptive.error-interval-minutes:30}")
+    private long errorIntervalMinutes;
+
+    @Value("${certificate.schedule.adaptive.max-error-interval-minutes:720}")
+    private long maxErrorIntervalMinutes;
+
+    public Duration intervalFor(Domain domain) {
+        if ("ERROR".equals(domain.getCertificateStatus())) {
+            // 连续失败时逐步拉长间隔，避免一直探测已经失效的域名
+            int failures = Math.min(Math.max(domain.getConsecutiveFailures(), 1), 16);
+            long minutes = errorIntervalMinutes << (failures - 1);
+            return Duration.ofMinutes(Math.min(minutes, maxErrorIntervalMinutes));
+        }
+
+        if (domain.getCertificateExpiryDate() == null) {
+            return Duration.ofMinutes(urgentIntervalMinutes);
+        }
+
+        long daysUntilExpiry = ChronoUnit.DAYS.between(LocalDateTime.now(), domain.getCertificateExpiryDate());
+        if (daysUntilExpiry <= 7) {
+            return Duration.ofMinutes(urgentIntervalMinutes);
+        } else if (daysUntilExpiry <= 30) {
+            return Duration.ofMinutes(expiringIntervalMinutes);
+        } else if (daysUntilExpiry <= 90) {
+            return Duration.ofMinutes(normalIntervalMinutes);
+        }
+        return Duration.ofMinutes(relaxedIntervalMinutes);
+    }
+
+    public LocalDateTime nextCheckAt(Domain domain, LocalDateTime checkedAt) {
+        if ("spread".equals(scheduleMode)) {
+            return nextSlot(domain.getDomainName(), checkedAt);
+        }
+        LocalDateTime next = checkedAt.plus(intervalFor(domain));
+        // 不要错过证书到期的时间点
+        LocalDateTime expiry = domain.getCertificateExpiryDate();
+        if (expiry != null && expiry.isAfter(checkedAt) && next.isAfter(expiry)) {
+            return expiry;
+        }
+        return next;
+    }
+
+    // checkedAt 之后域名的第一个时间槽；下一周期的槽一定晚于 checkedAt，最多看两个周期
+    private LocalDateTime nextSlot(String domainName, LocalDateTime checkedAt) {
+        ZoneId zone = ZoneId.systemDefault();
+        long after = checkedAt.atZone(zone).toInstant().toEpochMilli();
+        long intervalMillis = TimeUnit.HOURS.toMillis(spreadIntervalHours);
+        long cycle = after / intervalMillis;
+        long slot = cycle * intervalMillis + slotOffset(domainName, cycle, intervalMillis);
+        if (slot <= after) {
+            slot = (cycle + 1) * intervalMillis + slotOffset(domainName, cycle + 1, intervalMillis);
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(slot), zone);
+    }
+
+    // 时间槽在周期内的偏移：固定的哈希位置加上本周期的抖动，结果仍落在周期内
+    private long slotOffset(String domainName, long cycle, long intervalMillis) {
+        long offset = Math.floorMod(hash(domainName), intervalMillis);
+        long jitterMillis = TimeUnit.SECONDS.toMillis(spreadJitterSeconds);
+        if (jitterMillis > 0) {
+            long jitter = Math.floorMod(hash(domainName + "#" + cycle), 2 * jitterMillis + 1) - jitterMillis;
+            offset = Math.floorMod(offset + jitter, intervalMillis);
+        }
+        return offset;
+    }
+
+    private static long hash(String value) {
+        CRC32 crc = new CRC32();
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,67 @@
+package com.sslmonitor.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sslmonitor.model.Domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 一次异步手动检查任务，状态依次为 PENDING -> RUNNING -> DONE / FAILED
+ */
+public class CheckJob {
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private final String id = UUID.randomUUID().toString();
+    private final String domainName;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final CompletableFuture<Domain> completion = new CompletableFuture<>();
+    private volatile String status = PENDING;
+    private volatile LocalDateTime finishedAt;
+    private volatile Domain result;
+    private volatile String error;
+
+    public CheckJob(String domainName) {
+        this.domainName = domainName;
+    }
+
+    public String getId() { return id; }
+    public String getDomainName() { return domainName; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public String getStatus() { return status; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public Domain getResult() { return result; }
+    public String getError() { return error; }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return DONE.equals(status) || FAILED.equals(status);
+    }
+
+    // 任务完成（成功或失败）时结束的 future
+    public CompletableFuture<Domain> completion() {
+        return completion;
+    }
+
+    void markRunning() {
+        status = RUNNING;
+    }
+
+    void complete(Domain domain) {
+        result = domain;
+        finishedAt = LocalDateTime.now();
+        status = DONE;
+        completion.complete(domain);
+    }
+
+    void fail(Throwable cause) {
+        error = cause.getMessage();
+        finishedAt = LocalDateTime.now();
+        status = FAILED;
+        completion.completeExceptionally(cause);
+    }
+}
@@ -0,0 +1,126 @@
+package com.sslmonitor.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 手动检查任务：在独立的有界线程池里执行，请求线程只负责提交任务。
+ * 同一域名已有未完成的任务时直接复用，完成的任务保留一段时间供查询。
+ */
+@Slf4j
+@Service
+public class CheckJobService {
+
+    @Value("${certificate.jobs.pool-size:8}")
+    private int poolSize;
+
+    @Value("${certificate.jobs.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${certificate.jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${certificate.jobs.sse-timeout-ms:60000}")
+    private long sseTimeoutMs;
+
+    private final CertificateService certificateService;
+    private final Map<String, CheckJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, CheckJob> activeByDomain = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    public CheckJobService(CertificateService certificateService) {
+        this.certificateService = certificateService;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "cert-check-job-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交一次手动检查；队列已满时抛出 RejectedExecutionException
+     */
+    public CheckJob submit(String domainName) {
+        CheckJob job = new CheckJob(domainName);
+        CheckJob existing = activeByDomain.putIfAbsent(domainName, job);
+        if (existing != null) {
+            log.debug("Reusing running check job {} for domain {}", existing.getId(), domainName);
+            return existing;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            activeByDomain.remove(domainName, job);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<CheckJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * 订阅任务结果：任务完成时推送一个 result 事件后关闭连接
+     */
+    public SseEmitter subscribe(CheckJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        job.completion().whenComplete((domain, ex) -> {
+            try {
+                emitter.send(SseEmitter.event().name("result").data(job));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    private void run(CheckJob job) {
+        job.markRunning();
+        try {
+            job.complete(certificateService.checkCertificate(job.getDomainName(), true));
+        } catch (Exception e) {
+            log.error("Check job {} failed for domain: {}", job.getId(), job.getDomainName(), e);
+            job.fail(e);
+        } finally {
+            activeByDomain.remove(job.getDomainName(), job);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.sslmonitor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 检查流水线的 Micrometer 指标：探测各阶段耗时、失败分类、写库、sweep 和邮件发送。
+ * 通过 /actuator/prometheus 暴露。
+ */
+@Component
+public class CheckMetrics {
+
+    public static final String PHASE_DNS = "dns";
+    public static final String PHASE_CONNECT = "connect";
+    public static final String PHASE_HANDSHAKE = "handshake";
+
+    // 连不上目标地址的失败类型，IP熔断只统计这几类
+    public static final String FAILURE_SOCKET_TIMEOUT = "socket_timeout";
+    public static final String FAILURE_CONNECT_REFUSED = "connect_refused";
+    public static final String FAILURE_NO_ROUTE = "no_route";
+
+    private final MeterRegistry registry;
+    private final Timer dnsTimer;
+    private final Timer connectTimer;
+    private final Timer handshakeTimer;
+    private final Timer dbSaveTimer;
+    private final Timer dbBatchTimer;
+    private final Timer sweepTimer;
+    private final Timer emailSendTimer;
+    private final Counter sweepDomains;
+    private final Counter sharedProbes;
+
+    private final AtomicLong lastSweepFinishedAt = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong lastSweepDurationMs = new AtomicLong();
+    // 到期未检查的域名中最早的计划时间距今多久，只在自适应调度下更新
+    private final AtomicLong scheduleLagSeconds = new AtomicLong();
+
+    public CheckMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.dnsTimer = phaseTimer(PHASE_DNS);
+        this.connectTimer = phaseTimer(PHASE_CONNECT);
+        this.handshakeTimer = phaseTimer(PHASE_HANDSHAKE);
+        this.dbSaveTimer = Timer.builder("sslmonitor.db.save")
+            .description("Time spent writing certificate check results")
+            .tag("mode", "single")
+            .register(registry);
+        this.dbBatchTimer = Timer.builder("sslmonitor.db.save")
+            .description("Time spent writing certificate check results")
+            .tag("mode", "batch")
+            .register(registry);
+        this.sweepTimer = Timer.builder("sslmonitor.sweep.duration")
+            .description("Wall-clock duration of a certificate sweep")
+            .register(registry);
+        this.emailSendTimer = Timer.builder("sslmonitor.email.send")
+            .description("Time spent sending notification emails")
+            .register(registry);
+        this.sweepDomains = Counter.builder("sslmonitor.sweep.domains")
+            .description("Domains checked by sweeps")
+            .register(registry);
+        this.sharedProbes = Counter.builder("sslmonitor.probe.shared")
+            .description("Checks answered from a certificate already seen on the same endpoint in the sweep")
+            .register(registry);
+
+        registry.gauge("sslmonitor.sweep.last.duration.seconds", lastSweepDurationMs, ms -> ms.get() / 1000.0);
+        registry.gauge("sslmonitor.sweep.since.last.seconds", lastSweepFinishedAt,
+            finishedAt -> (System.currentTimeMillis() - finishedAt.get()) / 1000.0);
+        registry.gauge("sslmonitor.schedule.lag.seconds", scheduleLagSeconds, AtomicLong::doubleValue);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    public void recordPhase(String phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        switch (phase) {
+            case PHASE_DNS -> dnsTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            case PHASE_CONNECT -> connectTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            default -> handshakeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordFailure(Throwable e) {
+        registry.counter("sslmonitor.probe.failures", "cause", failureClass(e)).increment();
+    }
+
+    public void recordSharedProbe() {
+        sharedProbes.increment();
+    }
+
+    public void recordDbSave(long startNanos) {
+        dbSaveTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDbBatch(long startNanos) {
+        dbBatchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordEmailSend(long startNanos) {
+        emailSendTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSweep(SweepReport report) {
+        sweepTimer.record(report.getDuration());
+        sweepDomains.increment(report.getTotal());
+        lastSweepDurationMs.set(report.getDuration().toMillis());
+        lastSweepFinishedAt.set(System.currentTimeMillis());
+    }
+
+    public void setScheduleLag(Duration lag) {
+        scheduleLagSeconds.set(Math.max(0, lag.getSeconds()));
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("sslmonitor.probe.phase")
+            .description("Duration of each certificate probe phase")
+            .tag("phase", phase)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    static String failureClass(Throwable e) {
+        if (e instanceof UnknownHostException) {
+            return "unknown_host";
+        } else if (e instanceof SSLHandshakeException) {
+            return "ssl_handshake";
+        } else if (e instanceof SocketTimeoutException) {
+            return FAILURE_SOCKET_TIMEOUT;
+        } else if (e instanceof ConnectException) {
+            return FAILURE_CONNECT_REFUSED;
+        } else if (e instanceof NoRouteToHostException) {
+            return FAILURE_NO_ROUTE;
+        }
+        return "other";
+    }
+}
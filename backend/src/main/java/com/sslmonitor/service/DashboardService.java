@@ -0,0 +1,123 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.DashboardSummary;
+import com.sslmonitor.dto.DomainSummary;
+import com.sslmonitor.repository.DomainRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 仪表盘汇总：所有统计都由数据库的计数和分组查询完成，不把域名加载到内存。
+ * 结果缓存 cache-seconds 秒，期间的请求直接返回同一份快照，同一时间只有一个请求去刷新。
+ */
+@Service
+public class DashboardService {
+
+    private static final String UNCHECKED = "UNCHECKED";
+
+    // 剩余天数分桶的边界，例如 7,14,30 得到 [0,7) [7,14) [14,30) [30,+∞)
+    @Value("${certificate.summary.expiry-buckets:7,14,30,60,90}")
+    private String expiryBuckets;
+
+    @Value("${certificate.summary.top-issuers:10}")
+    private int topIssuers;
+
+    @Value("${certificate.summary.top-expiring:10}")
+    private int topExpiring;
+
+    @Value("${certificate.summary.cache-seconds:30}")
+    private long cacheSeconds;
+
+    private final DomainRepository domainRepository;
+    private int[] bucketBounds;
+    private volatile DashboardSummary cached;
+    private volatile long cachedAt;
+
+    public DashboardService(DomainRepository domainRepository) {
+        this.domainRepository = domainRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        bucketBounds = Arrays.stream(expiryBuckets.split(","))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .mapToInt(Integer::parseInt)
+            .filter(days -> days > 0)
+            .sorted()
+            .distinct()
+            .toArray();
+    }
+
+    public DashboardSummary getSummary() {
+        DashboardSummary summary = cached;
+        if (summary != null && !isExpired()) {
+            return summary;
+        }
+        synchronized (this) {
+            if (cached == null || isExpired()) {
+                cached = compute();
+                cachedAt = System.nanoTime();
+            }
+            return cached;
+        }
+    }
+
+    // 检查结果写库后不主动失效，最多延迟 cache-seconds 秒反映到汇总中
+    private boolean isExpired() {
+        return System.nanoTime() - cachedAt > TimeUnit.SECONDS.toNanos(cacheSeconds);
+    }
+
+    private DashboardSummary compute() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : domainRepository.countByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            statusCounts.merge(row[0] == null ? UNCHECKED : (String) row[0], count, Long::sum);
+            total += count;
+        }
+
+        List<DashboardSummary.IssuerCount> issuers = new ArrayList<>();
+        for (Object[] row : domainRepository.countByIssuer(PageRequest.of(0, topIssuers))) {
+            issuers.add(new DashboardSummary.IssuerCount((String) row[0], ((Number) row[1]).longValue()));
+        }
+
+        List<DomainSummary> soonest = domainRepository.findSummariesOrderByExpiry(null, now, null, "%",
+            null, null, PageRequest.of(0, topExpiring));
+
+        return new DashboardSummary(total, statusCounts, expiryHistogram(now), issuers, soonest, now);
+    }
+
+    // 每个桶是 (certificate_expiry_date, id) 索引上的一次范围计数
+    private List<DashboardSummary.ExpiryBucket> expiryHistogram(LocalDateTime now) {
+        List<DashboardSummary.ExpiryBucket> buckets = new ArrayList<>(bucketBounds.length + 3);
+        buckets.add(new DashboardSummary.ExpiryBucket("expired", null, 0,
+            domainRepository.countByCertificateExpiryDateLessThan(now)));
+
+        int lower = 0;
+        for (int upper : bucketBounds) {
+            buckets.add(new DashboardSummary.ExpiryBucket(lower + "-" + upper + "d", lower, upper,
+                domainRepository.countByCertificateExpiryDateGreaterThanEqualAndCertificateExpiryDateLessThan(
+                    now.plusDays(lower), now.plusDays(upper))));
+            lower = upper;
+        }
+        buckets.add(new DashboardSummary.ExpiryBucket(lower + "d+", lower, null,
+            domainRepository.countByCertificateExpiryDateGreaterThanEqual(now.plusDays(lower))));
+
+        buckets.add(new DashboardSummary.ExpiryBucket("unknown", null, null,
+            domainRepository.countByCertificateExpiryDateIsNull()));
+        return buckets;
+    }
+}
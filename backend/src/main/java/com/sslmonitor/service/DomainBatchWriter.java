@@ -0,0 +1,143 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在一个事务里写回一批检查结果或已发送的通知状态，以 JDBC 批量 UPDATE 执行。
+ * 只更新检查结果相关的列：sweep 中的实体是开始时加载的，期间通过接口修改的邮箱、自动续期、端点等配置不会被覆盖，
+ * 期间由 markNotified 写入的已通知状态也只在本次结果表明证书已续期时才清除；
+ * 期间被删除的域名更新不到任何行，直接忽略，不影响同一批的其他域名。
+ */
+@Slf4j
+@Component
+public class DomainBatchWriter {
+
+    private static final String UPDATE_RESULT_SQL =
+        "UPDATE domains SET certificate_expiry_date = ?, certificate_status = ?, last_checked = ?, " +
+        "certificate_details = ?, certificate_issuer = ?, chain_fingerprints = ?, next_check_at = ?, " +
+        "consecutive_failures = ?, circuit_state = ?, circuit_open_until = ?, " +
+        "last_notified_threshold = CASE WHEN ? THEN NULL ELSE last_notified_threshold END, " +
+        "last_notified_at = CASE WHEN ? THEN NULL ELSE last_notified_at END, " +
+        "change_version = ?, updated_at = ? WHERE id = ?";
+    private static final String POSTPONE_SQL =
+        "UPDATE domains SET next_check_at = ?, change_version = ?, updated_at = ? WHERE id = ?";
+    private static final String MARK_NOTIFIED_SQL =
+        "UPDATE domains SET last_notified_threshold = ?, last_notified_at = ?, change_version = ?, updated_at = ? " +
+        "WHERE id = ?";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DomainChangeTracker changeTracker;
+    private final NotificationPolicy notificationPolicy;
+
+    public DomainBatchWriter(JdbcTemplate jdbcTemplate, DomainChangeTracker changeTracker,
+                             NotificationPolicy notificationPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeTracker = changeTracker;
+        this.notificationPolicy = notificationPolicy;
+    }
+
+    /**
+     * 写回检查结果，返回实际更新到的域名（不含已被删除的）
+     */
+    @Transactional
+    public List<Domain> write(List<Domain> domains) {
+        List<Domain> targets = new ArrayList<>(domains.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Domain domain : domains) {
+            if (domain.getId() != null) {
+                // 绕过了实体监听器，变更版本在这里分配，事务结束后释放
+                domain.setChangeVersion(changeTracker.allocateInTransaction());
+                domain.setUpdatedAt(now);
+                targets.add(domain);
+            }
+        }
+        if (targets.isEmpty()) {
+            return targets;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_RESULT_SQL, targets, targets.size(), (ps, domain) -> {
+            ps.setTimestamp(1, timestamp(domain.getCertificateExpiryDate()));
+            ps.setString(2, domain.getCertificateStatus());
+            ps.setTimestamp(3, timestamp(domain.getLastChecked()));
+            ps.setString(4, domain.getCertificateDetails());
+            ps.setString(5, domain.getCertificateIssuer());
+            ps.setString(6, domain.getChainFingerprints());
+            ps.setTimestamp(7, timestamp(domain.getNextCheckAt()));
+            ps.setInt(8, domain.getConsecutiveFailures());
+            ps.setString(9, domain.getCircuitState());
+            ps.setTimestamp(10, timestamp(domain.getCircuitOpenUntil()));
+            // 已通知状态只由 markNotified 写入；这里只依据本次结果判断是否续期，不看开始时加载的旧状态
+            boolean resetNotification = notificationPolicy.isRenewed(domain);
+            ps.setBoolean(11, resetNotification);
+            ps.setBoolean(12, resetNotification);
+            ps.setLong(13, domain.getChangeVersion());
+            ps.setTimestamp(14, timestamp(domain.getUpdatedAt()));
+            ps.setLong(15, domain.getId());
+        });
+
+        List<Domain> updated = new ArrayList<>(targets.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 部分驱动批量执行时不返回具体行数
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated.add(targets.get(index));
+                }
+                index++;
+            }
+        }
+        if (updated.size() < targets.size()) {
+            log.debug("{} domains were deleted during the check, skipping their results",
+                targets.size() - updated.size());
+        }
+        return updated;
+    }
+
+    /**
+     * 只写回被熔断推迟的域名的下一次检查时间
+     */
+    @Transactional
+    public void postpone(List<Domain> domains) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(POSTPONE_SQL, domains, BATCH_SIZE, (ps, domain) -> {
+            ps.setTimestamp(1, timestamp(domain.getNextCheckAt()));
+            ps.setLong(2, changeTracker.allocateInTransaction());
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+            ps.setLong(4, domain.getId());
+        });
+    }
+
+    /**
+     * 记录已发送的到期通知，由 NotificationDispatcher 在邮件发送成功后调用
+     */
+    @Transactional
+    public void markNotified(List<ExpiryNotice> notices) {
+        if (notices.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(MARK_NOTIFIED_SQL, notices, notices.size(), (ps, notice) -> {
+            ps.setInt(1, notice.getThreshold());
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+            ps.setLong(3, changeTracker.allocateInTransaction());
+            ps.setTimestamp(4, Timestamp.valueOf(now));
+            ps.setLong(5, notice.getDomain().getId());
+        });
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
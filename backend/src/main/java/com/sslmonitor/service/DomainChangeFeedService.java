@@ -0,0 +1,139 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.DomainChangePage;
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.model.DomainDeletion;
+import com.sslmonitor.repository.DomainDeletionRepository;
+import com.sslmonitor.repository.DomainRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 域名变更的增量拉取：token 中记录客户端已经看到的变更版本和 token 的签发时间，
+ * 每次只返回版本更新的域名和删除记录，轮询开销与变更量成正比，与域名总数无关。
+ * 删除记录只保留 tombstone-retention-hours，更早签发的 token 需要重新拉取完整列表。
+ */
+@Slf4j
+@Service
+public class DomainChangeFeedService {
+
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 5000;
+
+    @Value("${certificate.changes.tombstone-retention-hours:168}")
+    private long tombstoneRetentionHours;
+
+    private final DomainRepository domainRepository;
+    private final DomainDeletionRepository deletionRepository;
+    private final DomainChangeTracker changeTracker;
+    private final DomainStatusCache statusCache;
+
+    public DomainChangeFeedService(DomainRepository domainRepository, DomainDeletionRepository deletionRepository,
+                                   DomainChangeTracker changeTracker, DomainStatusCache statusCache) {
+        this.domainRepository = domainRepository;
+        this.deletionRepository = deletionRepository;
+        this.changeTracker = changeTracker;
+        this.statusCache = statusCache;
+    }
+
+    /**
+     * 返回 token 之后的变更；没有 token 或 token 已过期时只返回新的 token 并要求重新同步
+     */
+    public DomainChangePage changesSince(String token, Integer limit) {
+        long upTo = changeTracker.committedVersion();
+        if (!StringUtils.hasText(token)) {
+            return resync(upTo);
+        }
+        long[] decoded = decodeToken(token);
+        if (System.currentTimeMillis() - decoded[1] > TimeUnit.HOURS.toMillis(tombstoneRetentionHours)) {
+            return resync(upTo);
+        }
+        long since = decoded[0];
+        if (since >= upTo) {
+            return new DomainChangePage(List.of(), List.of(), encodeToken(since), false, false);
+        }
+
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        // 各多取一行判断是否还有下一页；有下一页时只返回到两者中较小的截止版本，保证不跳过任何版本
+        List<Domain> changes = domainRepository.findChanges(since, upTo, PageRequest.of(0, size + 1));
+        List<DomainDeletion> deletions = deletionRepository.findChanges(since, upTo, PageRequest.of(0, size + 1));
+        long bound = upTo;
+        if (changes.size() > size) {
+            bound = Math.min(bound, changes.get(size - 1).getChangeVersion());
+        }
+        if (deletions.size() > size) {
+            bound = Math.min(bound, deletions.get(size - 1).getChangeVersion());
+        }
+        long end = bound;
+        return new DomainChangePage(
+            changes.stream().filter(domain -> domain.getChangeVersion() <= end).toList(),
+            deletions.stream().filter(deletion -> deletion.getChangeVersion() <= end)
+                .map(DomainDeletion::getDomainId).toList(),
+            encodeToken(end), end < upTo, false);
+    }
+
+    /**
+     * 删除域名并在同一事务中写入删除记录
+     */
+    @Transactional
+    public boolean deleteDomain(Long id) {
+        if (!domainRepository.existsById(id)) {
+            return false;
+        }
+        domainRepository.deleteById(id);
+        DomainDeletion deletion = new DomainDeletion();
+        deletion.setDomainId(id);
+        deletion.setChangeVersion(changeTracker.allocateInTransaction());
+        deletion.setDeletedAt(LocalDateTime.now());
+        deletionRepository.save(deletion);
+        return true;
+    }
+
+    /**
+     * 列表接口的 ETag：已提交的变更版本加上状态缓存的修改次数。
+     * 需要在读取列表之前取得，这样并发修改只会让客户端多拉取一次，不会把旧数据当成最新的缓存下来。
+     */
+    public String listEtag() {
+        return "\"" + changeTracker.committedVersion() + "-" + statusCache.getGeneration() + "\"";
+    }
+
+    // 多保留一小时，签发时间正好在保留期边界上的 token 也不会错过删除记录
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeTombstones() {
+        int purged = deletionRepository.deleteDeletedBefore(
+            LocalDateTime.now().minusHours(tombstoneRetentionHours + 1));
+        if (purged > 0) {
+            log.info("Purged {} domain deletion records", purged);
+        }
+    }
+
+    private DomainChangePage resync(long upTo) {
+        return new DomainChangePage(List.of(), List.of(), encodeToken(upTo), false, true);
+    }
+
+    private String encodeToken(long version) {
+        String value = version + "|" + System.currentTimeMillis();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeToken(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\|", 2);
+            return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+    }
+}
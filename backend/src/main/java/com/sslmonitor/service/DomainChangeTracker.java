@@ -0,0 +1,79 @@
+package com.sslmonitor.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * 分配域名变更版本号：全局单调递增，每次写入域名（包括删除）占用一个新版本。
+ * 版本号在写入前分配、事务结束后才算完成，对外只公布"之前所有版本都已提交"的版本，
+ * 客户端按这个版本增量拉取时不会漏掉晚提交的较小版本。
+ */
+@Component
+public class DomainChangeTracker {
+
+    private final JdbcTemplate jdbcTemplate;
+    // 已分配但事务尚未结束的版本
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long lastVersion;
+    private boolean initialized;
+
+    public DomainChangeTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 在当前事务中分配一个版本，事务提交或回滚后自动完成；没有事务时立即完成
+     */
+    public long allocateInTransaction() {
+        long version = allocate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(version);
+                }
+            });
+        } else {
+            release(version);
+        }
+        return version;
+    }
+
+    /**
+     * 分配一个版本，调用方写入结束后必须调用 {@link #release(long)}
+     */
+    public synchronized long allocate() {
+        ensureInitialized();
+        long version = ++lastVersion;
+        inFlight.add(version);
+        return version;
+    }
+
+    public synchronized void release(long version) {
+        inFlight.remove(version);
+    }
+
+    /**
+     * 不大于该值的版本都已经完成写入
+     */
+    public synchronized long committedVersion() {
+        ensureInitialized();
+        return inFlight.isEmpty() ? lastVersion : inFlight.first() - 1;
+    }
+
+    // 首次使用时从数据库取已用的最大版本；不能放在构造时，实体监听器创建时表还没有建好
+    private void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        Long domains = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM domains", Long.class);
+        Long deletions = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM domain_deletions", Long.class);
+        lastVersion = Math.max(domains != null ? domains : 0, deletions != null ? deletions : 0);
+        initialized = true;
+    }
+}
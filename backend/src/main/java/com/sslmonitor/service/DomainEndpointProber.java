@@ -0,0 +1,263 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.model.DomainEndpoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 配置了多个端点的域名：所有端点（以及需要时每个 A/AAAA 地址）各做一次握手，
+ * 结果写回各端点，并汇总为一个域名级的结果——到期时间取最早的一个，任一端点失败则整体失败，
+ * 全部端点都连不上时才算不可达。
+ * 第一次握手使用调用方已占用的并发名额和限速令牌，其余每次握手各自占用一个 sweep 全局名额和一个令牌；
+ * 拿不到全局名额的握手在当前线程里串行执行，不会超出 sweep 的并发上限。
+ */
+@Slf4j
+@Component
+public class DomainEndpointProber {
+
+    private static final int MAX_DETAILS_LENGTH = 2048;
+    private static final int MAX_ENDPOINT_DETAILS_LENGTH = 512;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Value("${certificate.endpoints.pool-size:32}")
+    private int poolSize;
+
+    @Value("${certificate.endpoints.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    private final CertificateProber prober;
+    private final DomainResolver resolver;
+    private final CertificateSweepEngine sweepEngine;
+    private final ProbeRateLimiter rateLimiter;
+    private ExecutorService executor;
+
+    public DomainEndpointProber(CertificateProber prober, DomainResolver resolver,
+                                CertificateSweepEngine sweepEngine, ProbeRateLimiter rateLimiter) {
+        this.prober = prober;
+        this.resolver = resolver;
+        this.sweepEngine = sweepEngine;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = createExecutor();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public CertificateCheckResult probe(Domain domain, int timeoutMs) {
+        List<DomainEndpoint> endpoints = domain.getEndpoints();
+        List<List<Handshake>> handshakes = new ArrayList<>(endpoints.size());
+        List<Handshake> all = new ArrayList<>();
+        for (DomainEndpoint endpoint : endpoints) {
+            List<Handshake> perEndpoint = handshakes(domain.getDomainName(), endpoint, timeoutMs);
+            handshakes.add(perEndpoint);
+            all.addAll(perEndpoint);
+        }
+        runAll(all);
+
+        LocalDateTime checkedAt = LocalDateTime.now();
+        List<String> labels = new ArrayList<>(endpoints.size());
+        List<CertificateCheckResult> results = new ArrayList<>(endpoints.size());
+        for (int i = 0; i < endpoints.size(); i++) {
+            DomainEndpoint endpoint = endpoints.get(i);
+            List<Handshake> perEndpoint = handshakes.get(i);
+            CertificateCheckResult result = combine(perEndpoint.stream().map(h -> h.label).toList(),
+                perEndpoint.stream().map(h -> h.result).toList());
+            endpoint.setStatus(result.isAccessible() ? "VALID" : "ERROR");
+            endpoint.setExpiryDate(result.getExpiryDate());
+            endpoint.setLastChecked(checkedAt);
+            endpoint.setDetails(result.isAccessible() ? null
+                : truncate(result.getErrorMessage(), MAX_ENDPOINT_DETAILS_LENGTH));
+            labels.add(label(hostOf(domain.getDomainName(), endpoint), null, endpoint));
+            results.add(result);
+        }
+        return combine(labels, results);
+    }
+
+    // 端点需要的握手：默认一次，allAddresses 时每个 A/AAAA 地址一次；解析失败时按普通方式探测一次，由探测器给出解析失败的结果
+    private List<Handshake> handshakes(String domainName, DomainEndpoint endpoint, int timeoutMs) {
+        String host = hostOf(domainName, endpoint);
+        if (endpoint.isAllAddresses()) {
+            try {
+                InetAddress[] addresses = resolver.resolveAllAsync(host).join();
+                List<Handshake> perAddress = new ArrayList<>(addresses.length);
+                for (InetAddress address : addresses) {
+                    perAddress.add(new Handshake(host, address, endpoint, timeoutMs, label(host, address, endpoint)));
+                }
+                return perAddress;
+            } catch (CompletionException e) {
+                log.debug("Failed to resolve all addresses of {}: {}", host, e.getMessage());
+            }
+        }
+        return List.of(new Handshake(host, null, endpoint, timeoutMs, label(host, null, endpoint)));
+    }
+
+    private void runAll(List<Handshake> handshakes) {
+        List<Handshake> inline = new ArrayList<>();
+        List<CompletableFuture<Void>> async = new ArrayList<>();
+        for (int i = 0; i < handshakes.size(); i++) {
+            Handshake handshake = handshakes.get(i);
+            boolean charged = i > 0;
+            if (charged && sweepEngine.tryAcquirePermit()) {
+                async.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        run(handshake, true);
+                    } finally {
+                        sweepEngine.releasePermit();
+                    }
+                }, executor));
+            } else {
+                inline.add(handshake);
+            }
+        }
+        for (Handshake handshake : inline) {
+            run(handshake, handshake != handshakes.get(0));
+        }
+        async.forEach(CompletableFuture::join);
+    }
+
+    private void run(Handshake handshake, boolean charged) {
+        if (charged) {
+            try {
+                rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                CertificateCheckResult interrupted = new CertificateCheckResult();
+                interrupted.setErrorMessage("Probe interrupted");
+                handshake.result = interrupted;
+                return;
+            }
+        }
+        DomainEndpoint endpoint = handshake.endpoint;
+        handshake.result = prober.probeEndpoint(handshake.host, handshake.address, endpoint.getPort(),
+            endpoint.getStartTls(), handshake.timeoutMs);
+    }
+
+    private CertificateCheckResult combine(List<String> labels, List<CertificateCheckResult> results) {
+        if (results.size() == 1) {
+            return results.get(0);
+        }
+
+        CertificateCheckResult combined = new CertificateCheckResult();
+        boolean allAccessible = true;
+        boolean allUnreachable = true;
+        StringBuilder details = new StringBuilder();
+        for (int i = 0; i < results.size(); i++) {
+            CertificateCheckResult result = results.get(i);
+            allAccessible &= result.isAccessible();
+            allUnreachable &= result.isUnreachable();
+            if (result.getExpiryDate() != null
+                && (combined.getExpiryDate() == null || result.getExpiryDate().isBefore(combined.getExpiryDate()))) {
+                // 域名上记录最早到期的那张证书及其证书链
+                combined.copyCertificateFrom(result);
+            }
+            if (combined.getErrorClass() == null && !result.isAccessible()) {
+                combined.setErrorClass(result.getErrorClass());
+            }
+            if (details.length() > 0) {
+                details.append('\n');
+            }
+            details.append(labels.get(i)).append(": ");
+            if (result.isAccessible()) {
+                details.append("expires ").append(DATE_FORMATTER.format(result.getExpiryDate()))
+                    .append(" (").append(result.getDaysUntilExpiry()).append(" days)");
+            } else {
+                details.append(Objects.toString(result.getErrorMessage(), "Unknown error"));
+            }
+        }
+
+        combined.setAccessible(allAccessible);
+        combined.setUnreachable(allUnreachable);
+        String text = truncate(details.toString(), MAX_DETAILS_LENGTH);
+        if (allAccessible) {
+            combined.setCertificateDetails(text);
+        } else {
+            combined.setErrorMessage(text);
+        }
+        return combined;
+    }
+
+    private static String hostOf(String domainName, DomainEndpoint endpoint) {
+        return StringUtils.hasText(endpoint.getHost()) ? endpoint.getHost() : domainName;
+    }
+
+    private static String label(String host, InetAddress address, DomainEndpoint endpoint) {
+        StringBuilder label = new StringBuilder(host);
+        if (address != null) {
+            label.append('[').append(address.getHostAddress()).append(']');
+        }
+        label.append(':').append(endpoint.getPort());
+        if (endpoint.getStartTls() != null) {
+            label.append(" (").append(endpoint.getStartTls()).append(" STARTTLS)");
+        }
+        return label.toString();
+    }
+
+    private static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength - 3) + "...";
+    }
+
+    private ExecutorService createExecutor() {
+        if (virtualThreads) {
+            try {
+                // 运行在 Java 21+ 时使用虚拟线程，Java 17 下回退到固定线程池
+                return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.info("Virtual threads not available on this JVM, endpoint probes use a pool of {} threads",
+                    poolSize);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "cert-endpoint-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 一次握手的目标和结果
+    private static class Handshake {
+        private final String host;
+        private final InetAddress address;
+        private final DomainEndpoint endpoint;
+        private final int timeoutMs;
+        private final String label;
+        private volatile CertificateCheckResult result;
+
+        Handshake(String host, InetAddress address, DomainEndpoint endpoint, int timeoutMs, String label) {
+            this.host = host;
+            this.address = address;
+            this.endpoint = endpoint;
+            this.timeoutMs = timeoutMs;
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.DomainSummary;
+import com.sslmonitor.dto.SweepProgress;
+import com.sslmonitor.model.Domain;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 检查结果和 sweep 进度的实时推送：所有订阅者共享一个进程内事件总线。
+ * 发布方只把事件放进每个订阅者自己的有界缓冲区，不会被慢连接阻塞；
+ * 同一域名、同一 sweep 尚未发出的事件只保留最新的一条，缓冲区满时丢弃最旧的事件，
+ * 并在下一次发送前推送 dropped 事件，客户端收到后应通过 /changes 或完整列表重新同步。
+ */
+@Slf4j
+@Service
+public class DomainEventBus {
+
+    public static final String EVENT_CHECK = "check";
+    public static final String EVENT_SWEEP = "sweep";
+    public static final String EVENT_DROPPED = "dropped";
+
+    @Value("${certificate.events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${certificate.events.max-subscribers:200}")
+    private int maxSubscribers;
+
+    // 常驻的发送线程数；慢连接阻塞时按需增加，最多每个订阅者一个
+    @Value("${certificate.events.sender-threads:4}")
+    private int senderThreads;
+
+    // 单次写入超过这个时间的订阅者在下一次心跳时被断开，释放发送线程
+    @Value("${certificate.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // 连接超时后由浏览器的 EventSource 自动重连
+    @Value("${certificate.events.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    private final CheckMetrics metrics;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ExecutorService sender;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public DomainEventBus(CheckMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        // 每个订阅者同一时间只有一个发送任务，订阅数受 maxSubscribers 限制，所以直接交给线程而不排队
+        sender = new ThreadPoolExecutor(senderThreads, Math.max(senderThreads, maxSubscribers),
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "domain-event-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        MeterRegistry registry = metrics.getRegistry();
+        registry.gauge("sslmonitor.events.subscribers", subscribers, Set::size);
+        FunctionCounter.builder("sslmonitor.events.published", published, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.events.delivered", delivered, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.events.coalesced", coalesced, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.events.dropped", dropped, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.events.timed-out", timedOut, AtomicLong::doubleValue).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * 新建一个订阅；订阅数已达上限时抛出 RejectedExecutionException
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many event subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * 推送一个域名的检查结果，应在结果写库之后调用
+     */
+    public void publishCheck(Domain domain) {
+        if (subscribers.isEmpty() || domain.getId() == null) {
+            return;
+        }
+        publish(new Event(EVENT_CHECK + ":" + domain.getId(), EVENT_CHECK, DomainSummary.from(domain)));
+    }
+
+    // 同一时间只有一轮 sweep，进度事件共用一个合并键，慢连接只会收到最新进度
+    public void publishSweep(SweepProgress progress) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        publish(new Event(EVENT_SWEEP, EVENT_SWEEP, progress));
+    }
+
+    // 定期发送注释行，保持连接不被代理断开，同时断开写入卡住的订阅
+    @Scheduled(fixedDelayString = "${certificate.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long sendStartedAt = subscriber.sendStartedAt;
+            if (sendStartedAt > 0 && now - sendStartedAt > sendTimeoutMs) {
+                subscriber.close(new IOException("Event send timed out after " + (now - sendStartedAt) + "ms"));
+                timedOut.incrementAndGet();
+                continue;
+            }
+            if (subscriber.offer(Event.HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("subscriberBuffer", subscriberBuffer);
+        stats.put("published", published.get());
+        stats.put("delivered", delivered.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("dropped", dropped.get());
+        stats.put("timedOut", timedOut.get());
+        return stats;
+    }
+
+    private void publish(Event event) {
+        published.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(event)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        try {
+            sender.execute(subscriber::drain);
+        } catch (RejectedExecutionException e) {
+            subscriber.close(null);
+        }
+    }
+
+    private static class Event {
+        // 心跳使用注释行，EventSource 不会触发任何事件
+        static final Event HEARTBEAT = new Event("heartbeat", null, null);
+
+        private final String key;
+        private final String name;
+        private final Object data;
+
+        Event(String key, String name, Object data) {
+            this.key = key;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        // 按合并键保存尚未发送的事件，替换时移到末尾，保持最新的顺序
+        private final LinkedHashMap<String, Event> pending = new LinkedHashMap<>();
+        private int droppedSinceLastSend;
+        // 当前写入开始的时间，0 表示没有在写
+        private volatile long sendStartedAt;
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * 放入缓冲区；返回 true 表示需要调度一次发送
+         */
+        synchronized boolean offer(Event event) {
+            if (closed) {
+                return false;
+            }
+            if (pending.remove(event.key) != null) {
+                coalesced.incrementAndGet();
+            } else if (pending.size() >= subscriberBuffer) {
+                Iterator<String> oldest = pending.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                droppedSinceLastSend++;
+                dropped.incrementAndGet();
+            }
+            pending.put(event.key, event);
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        // 在发送线程中执行，直到缓冲区为空；同一订阅者同一时间只有一个发送任务
+        void drain() {
+            while (true) {
+                List<Event> batch;
+                int droppedCount;
+                synchronized (this) {
+                    if (closed || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    droppedCount = droppedSinceLastSend;
+                    droppedSinceLastSend = 0;
+                }
+                try {
+                    if (droppedCount > 0) {
+                        send(SseEmitter.event().name(EVENT_DROPPED).data(Map.of("count", droppedCount)));
+                    }
+                    for (Event event : batch) {
+                        if (event.name == null) {
+                            send(SseEmitter.event().comment(event.key));
+                        } else {
+                            send(SseEmitter.event().name(event.name).data(event.data));
+                            delivered.incrementAndGet();
+                        }
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close(e);
+                    return;
+                }
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedAt = System.currentTimeMillis();
+            try {
+                emitter.send(event);
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        void close(Exception cause) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            subscribers.remove(this);
+            log.debug("Closing event subscriber: {}", cause != null ? cause.getMessage() : "shutdown");
+            if (cause != null) {
+                emitter.completeWithError(cause);
+            } else {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.sslmonitor.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sslmonitor.dto.ImportRowResult;
+import com.sslmonitor.dto.ImportSummary;
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.repository.DomainRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入域名：逐行读取 CSV / NDJSON，按批去重并用 JDBC 批量插入，
+ * 新域名的 nextCheckAt 设为导入时间，首次检查由调度器在下一次轮询时安排，不在导入请求中探测。
+ */
+@Slf4j
+@Service
+public class DomainImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final Pattern DOMAIN_PATTERN =
+        Pattern.compile("^(\\*\\.)?[a-z0-9]([a-z0-9-]*[a-z0-9])?(\\.[a-z0-9]([a-z0-9-]*[a-z0-9])?)+$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^\\s@]+@[^\\s@]+\\.[^\\s@]+$");
+    private static final String INSERT_SQL =
+        "INSERT INTO domains (domain_name, notification_email, auto_renewal, consecutive_failures, " +
+        "next_check_at, change_version, updated_at) VALUES (?, ?, ?, 0, ?, ?, ?)";
+
+    @Value("${certificate.import.batch-size:500}")
+    private int batchSize;
+
+    private final DomainRepository domainRepository;
+    private final DomainStatusCache statusCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DomainChangeTracker changeTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    public DomainImportService(DomainRepository domainRepository, DomainStatusCache statusCache,
+                               JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                               DomainChangeTracker changeTracker, PlatformTransactionManager transactionManager) {
+        this.domainRepository = domainRepository;
+        this.statusCache = statusCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.changeTracker = changeTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 逐行导入，每处理完一行就通过 rowConsumer 输出结果，最后返回汇总
+     */
+    public ImportSummary importDomains(BufferedReader reader, String format, Consumer<ImportRowResult> rowConsumer)
+            throws IOException {
+        ImportSummary summary = new ImportSummary();
+        Consumer<ImportRowResult> sink = row -> {
+            summary.count(row);
+            rowConsumer.accept(row);
+        };
+
+        // 本次导入中已处理过的域名，用于文件内去重
+        Set<String> seen = new HashSet<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!StringUtils.hasText(line)) {
+                continue;
+            }
+            Row row = parse(line, lineNumber, format);
+            if (row == null) {
+                continue;
+            }
+            if (row.error != null) {
+                sink.accept(new ImportRowResult(lineNumber, row.domainName, ImportRowResult.INVALID, row.error));
+                continue;
+            }
+            if (!seen.add(row.domainName)) {
+                sink.accept(new ImportRowResult(lineNumber, row.domainName, ImportRowResult.DUPLICATE,
+                    "Duplicate in import"));
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                flush(batch, sink);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, sink);
+        }
+
+        log.info("Domain import finished: total={}, created={}, duplicates={}, invalid={}, failed={}",
+            summary.getTotal(), summary.getCreated(), summary.getDuplicates(), summary.getInvalid(),
+            summary.getFailed());
+        return summary;
+    }
+
+    private void flush(List<Row> batch, Consumer<ImportRowResult> sink) {
+        Set<String> names = batch.stream().map(row -> row.domainName).collect(Collectors.toSet());
+        Set<String> existing = new HashSet<>(domainRepository.findExistingDomainNames(names));
+
+        List<Row> toInsert = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (existing.contains(row.domainName)) {
+                sink.accept(new ImportRowResult(row.line, row.domainName, ImportRowResult.DUPLICATE,
+                    "Domain already exists"));
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        List<Row> inserted = insert(toInsert, sink);
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        List<Domain> created = domainRepository.findByDomainNameIn(
+            inserted.stream().map(row -> row.domainName).toList());
+        statusCache.putAll(created);
+        inserted.forEach(row -> sink.accept(
+            new ImportRowResult(row.line, row.domainName, ImportRowResult.CREATED, null)));
+    }
+
+    // JDBC 批量插入；整批失败（如并发插入了相同域名）时退回逐行插入。
+    // 批量插入放在一个事务里：MySQL 驱动遇到失败的行会继续执行后面的行，必须整批回滚，逐行插入才能从干净的状态开始。
+    // 这里绕过了实体监听器，变更版本在插入前分配，提交后释放
+    private List<Row> insert(List<Row> rows, Consumer<ImportRowResult> sink) {
+        long[] versions = new long[rows.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = changeTracker.allocate();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        BatchPreparedStatementSetter setter = new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Row row = rows.get(i);
+                ps.setString(1, row.domainName);
+                ps.setString(2, row.notificationEmail);
+                ps.setBoolean(3, row.autoRenewal);
+                // 新域名立即到期，由调度器安排首次检查
+                ps.setTimestamp(4, now);
+                ps.setLong(5, versions[i]);
+                ps.setTimestamp(6, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, setter));
+                return rows;
+            } catch (DataAccessException e) {
+                log.warn("Batch insert of {} domains failed, retrying row by row: {}", rows.size(), e.getMessage());
+            }
+
+            List<Row> inserted = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = rows.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row.domainName, row.notificationEmail, row.autoRenewal,
+                        now, versions[i], now);
+                    inserted.add(row);
+                } catch (DataAccessException e) {
+                    boolean exists = domainRepository.findByDomainName(row.domainName).isPresent();
+                    sink.accept(new ImportRowResult(row.line, row.domainName,
+                        exists ? ImportRowResult.DUPLICATE : ImportRowResult.FAILED,
+                        exists ? "Domain already exists" : e.getMostSpecificCause().getMessage()));
+                }
+            }
+            return inserted;
+        } finally {
+            for (long version : versions) {
+                changeTracker.release(version);
+            }
+        }
+    }
+
+    private Row parse(String line, long lineNumber, String format) {
+        String domainName;
+        String email = null;
+        boolean autoRenewal = true;
+
+        if (FORMAT_NDJSON.equals(format)) {
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                domainName = node.path("domainName").asText(null);
+                email = node.path("notificationEmail").asText(null);
+                autoRenewal = node.path("autoRenewal").asBoolean(true);
+            } catch (IOException e) {
+                return Row.invalid(lineNumber, null, "Malformed JSON");
+            }
+        } else {
+            String[] cells = line.split(",", -1);
+            domainName = cells[0].trim();
+            // 跳过表头
+            if (lineNumber == 1 && ("domainname".equalsIgnoreCase(domainName) || "domain".equalsIgnoreCase(domainName))) {
+                return null;
+            }
+            if (cells.length > 1 && StringUtils.hasText(cells[1])) {
+                email = cells[1].trim();
+            }
+            if (cells.length > 2 && StringUtils.hasText(cells[2])) {
+                autoRenewal = Boolean.parseBoolean(cells[2].trim());
+            }
+        }
+
+        String cleaned = CertificateService.cleanDomainName(domainName);
+        if (!StringUtils.hasText(cleaned) || !DOMAIN_PATTERN.matcher(cleaned).matches()) {
+            return Row.invalid(lineNumber, domainName, "Invalid domain name");
+        }
+        if (StringUtils.hasText(email) && !EMAIL_PATTERN.matcher(email.trim()).matches()) {
+            return Row.invalid(lineNumber, cleaned, "Invalid notification email");
+        }
+        return new Row(lineNumber, cleaned, StringUtils.hasText(email) ? email.trim() : null, autoRenewal, null);
+    }
+
+    private static class Row {
+        private final long line;
+        private final String domainName;
+        private final String notificationEmail;
+        private final boolean autoRenewal;
+        private final String error;
+
+        Row(long line, String domainName, String notificationEmail, boolean autoRenewal, String error) {
+            this.line = line;
+            this.domainName = domainName;
+            this.notificationEmail = notificationEmail;
+            this.autoRenewal = autoRenewal;
+            this.error = error;
+        }
+
+        static Row invalid(long line, String domainName, String error) {
+            return new Row(line, domainName, null, true, error);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.DomainPage;
+import com.sslmonitor.dto.DomainSummary;
+import com.sslmonitor.repository.DomainRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 域名列表查询：按状态、剩余天数和域名前缀过滤，使用游标（keyset）分页，
+ * 翻到很深的页也不需要 OFFSET 扫描。相同的过滤条件也用于流式导出。
+ */
+@Service
+public class DomainListingService {
+
+    public static final String SORT_NAME = "name";
+    public static final String SORT_EXPIRY = "expiry";
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final DomainRepository domainRepository;
+
+    public DomainListingService(DomainRepository domainRepository) {
+        this.domainRepository = domainRepository;
+    }
+
+    public DomainPage list(String status, Integer minDaysLeft, Integer maxDaysLeft, String namePrefix,
+                           String sort, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // 多取一行用来判断是否还有下一页
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        LocalDateTime now = LocalDateTime.now();
+        String statusFilter = toStatusFilter(status);
+        LocalDateTime expiresFrom = minDaysLeft != null ? now.plusDays(minDaysLeft) : null;
+        LocalDateTime expiresTo = maxDaysLeft != null ? now.plusDays(maxDaysLeft) : null;
+        String namePattern = toPrefixPattern(namePrefix);
+        String after = decodeCursor(cursor);
+
+        List<DomainSummary> rows;
+        if (SORT_EXPIRY.equals(sort)) {
+            // 游标为 "到期时间|id"，到期时间为空表示已经翻到了排在最后的无到期时间的域名
+            LocalDateTime afterExpiry = null;
+            Long afterId = null;
+            boolean afterUnknownExpiry = false;
+            if (after != null) {
+                String[] parts = after.split("\\|", 2);
+                try {
+                    afterUnknownExpiry = parts[0].isEmpty();
+                    afterExpiry = afterUnknownExpiry ? null : LocalDateTime.parse(parts[0]);
+                    afterId = Long.parseLong(parts[1]);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+            }
+            rows = new ArrayList<>(pageSize + 1);
+            if (!afterUnknownExpiry) {
+                rows.addAll(domainRepository.findSummariesOrderByExpiry(statusFilter, expiresFrom, expiresTo,
+                    namePattern, afterExpiry, afterId, limit));
+            }
+            // 有到期时间的域名取完后接着取从未检查成功的域名；按剩余天数过滤时它们本来就不符合条件
+            if (rows.size() <= pageSize && expiresFrom == null && expiresTo == null) {
+                rows.addAll(domainRepository.findSummariesWithoutExpiry(statusFilter, namePattern,
+                    afterUnknownExpiry ? afterId : null, PageRequest.of(0, pageSize + 1 - rows.size())));
+            }
+        } else if (sort == null || SORT_NAME.equals(sort)) {
+            rows = domainRepository.findSummariesOrderByName(statusFilter, expiresFrom, expiresTo,
+                namePattern, after, limit);
+        } else {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<DomainSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            DomainSummary last = items.get(items.size() - 1);
+            nextCursor = SORT_EXPIRY.equals(sort)
+                ? encodeCursor(Objects.toString(last.getCertificateExpiryDate(), "") + "|" + last.getId())
+                : encodeCursor(last.getDomainName());
+        }
+        return new DomainPage(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    /**
+     * 按与分页列表相同的过滤条件，以域名顺序逐行输出全部域名。
+     * 数据库游标按固定的 fetch size 读取，内存占用与域名总数无关；consumer 在只读事务内被调用。
+     */
+    @Transactional(readOnly = true)
+    public long export(String status, Integer minDaysLeft, Integer maxDaysLeft, String namePrefix,
+                       Consumer<DomainSummary> consumer) {
+        LocalDateTime now = LocalDateTime.now();
+        long count = 0;
+        try (Stream<DomainSummary> rows = domainRepository.streamSummaries(toStatusFilter(status),
+                minDaysLeft != null ? now.plusDays(minDaysLeft) : null,
+                maxDaysLeft != null ? now.plusDays(maxDaysLeft) : null,
+                toPrefixPattern(namePrefix))) {
+            Iterator<DomainSummary> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String toStatusFilter(String status) {
+        return StringUtils.hasText(status) ? status.trim().toUpperCase() : null;
+    }
+
+    // LIKE 前缀匹配，转义用户输入中的通配符
+    private String toPrefixPattern(String namePrefix) {
+        if (!StringUtils.hasText(namePrefix)) {
+            return "%";
+        }
+        String escaped = namePrefix.trim().toLowerCase()
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_");
+        return escaped + "%";
+    }
+
+    private String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
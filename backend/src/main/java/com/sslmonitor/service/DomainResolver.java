@@ -0,0 +1,237 @@
+package com.sslmonitor.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 探测前的域名解析：在独立线程池中并行查询，结果按TTL缓存，查询失败也缓存一小段时间，
+ * 同一主机名同时只会有一个查询在进行。
+ * JVM 解析器不提供记录本身的TTL，这里的TTL由配置决定，应不大于这些域名实际的TTL。
+ */
+@Slf4j
+@Component
+public class DomainResolver {
+
+    @Value("${certificate.resolver.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${certificate.resolver.negative-ttl-seconds:60}")
+    private long negativeTtlSeconds;
+
+    @Value("${certificate.resolver.max-size:100000}")
+    private int maxSize;
+
+    @Value("${certificate.resolver.threads:16}")
+    private int threads;
+
+    @Value("${certificate.resolver.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final HostLookup lookup;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<InetAddress[]>> inFlight = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Timer lookupSuccessTimer;
+    private final Timer lookupFailureTimer;
+
+    public DomainResolver(ObjectProvider<HostLookup> lookupProvider, CheckMetrics metrics) {
+        this.lookup = lookupProvider.getIfAvailable(() -> InetAddress::getAllByName);
+        MeterRegistry registry = metrics.getRegistry();
+        FunctionCounter.builder("sslmonitor.dns.cache.requests", hits, AtomicLong::doubleValue)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("sslmonitor.dns.cache.requests", negativeHits, AtomicLong::doubleValue)
+            .tag("result", "negative_hit").register(registry);
+        FunctionCounter.builder("sslmonitor.dns.cache.requests", misses, AtomicLong::doubleValue)
+            .tag("result", "miss").register(registry);
+        registry.gauge("sslmonitor.dns.cache.size", this, DomainResolver::size);
+        this.lookupSuccessTimer = lookupTimer(registry, "success");
+        this.lookupFailureTimer = lookupTimer(registry, "failure");
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "dns-resolver-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 异步解析，返回第一个地址；解析失败时以 UnknownHostException 结束
+     */
+    public CompletableFuture<InetAddress> resolveAsync(String host) {
+        return lookupAsync(host).thenApply(addresses -> addresses[0]);
+    }
+
+    /**
+     * 异步解析，返回全部 A/AAAA 记录
+     */
+    public CompletableFuture<InetAddress[]> resolveAllAsync(String host) {
+        return lookupAsync(host).thenApply(InetAddress[]::clone);
+    }
+
+    /**
+     * 同步解析，供阻塞式探测使用
+     */
+    public InetAddress resolve(String host) throws UnknownHostException {
+        try {
+            return resolveAsync(host).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UnknownHostException unknownHost) {
+                throw unknownHost;
+            }
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long negativeHitCount = negativeHits.get();
+        long missCount = misses.get();
+        long total = hitCount + negativeHitCount + missCount;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size());
+        stats.put("hits", hitCount);
+        stats.put("negativeHits", negativeHitCount);
+        stats.put("misses", missCount);
+        stats.put("inFlight", inFlight.size());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) (hitCount + negativeHitCount) / total);
+        stats.put("avgLookupMs", lookupSuccessTimer.count() == 0 ? 0.0
+            : lookupSuccessTimer.mean(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private CompletableFuture<InetAddress[]> lookupAsync(String host) {
+        String key = host.toLowerCase();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() < entry.expiresAt) {
+                if (entry.addresses != null) {
+                    hits.incrementAndGet();
+                    return CompletableFuture.completedFuture(entry.addresses);
+                }
+                negativeHits.incrementAndGet();
+                return CompletableFuture.failedFuture(new UnknownHostException(host + " (cached)"));
+            }
+        }
+        misses.incrementAndGet();
+        CompletableFuture<InetAddress[]> created = new CompletableFuture<>();
+        CompletableFuture<InetAddress[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing == null) {
+            startLookup(key, created);
+            existing = created;
+        }
+        return existing;
+    }
+
+    private void startLookup(String key, CompletableFuture<InetAddress[]> result) {
+        CompletableFuture<InetAddress[]> lookupFuture;
+        try {
+            lookupFuture = CompletableFuture.supplyAsync(() -> lookupNow(key), executor);
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, result);
+            result.completeExceptionally(new UnknownHostException(key + " (resolver is shut down)"));
+            return;
+        }
+
+        lookupFuture.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((addresses, ex) -> {
+            if (ex == null) {
+                store(key, addresses, ttlSeconds);
+                inFlight.remove(key, result);
+                result.complete(addresses);
+                return;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof TimeoutException) {
+                // 超时不写入否定缓存，下次重新查询
+                log.warn("DNS lookup timed out after {} ms for host: {}", timeoutMs, key);
+                cause = new UnknownHostException(key + " (lookup timed out)");
+            } else {
+                store(key, null, negativeTtlSeconds);
+            }
+            inFlight.remove(key, result);
+            result.completeExceptionally(cause);
+        });
+    }
+
+    private InetAddress[] lookupNow(String key) {
+        long start = System.nanoTime();
+        try {
+            InetAddress[] addresses = lookup.lookup(key);
+            if (addresses == null || addresses.length == 0) {
+                throw new UnknownHostException(key);
+            }
+            lookupSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return addresses;
+        } catch (UnknownHostException e) {
+            lookupFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new CompletionException(e);
+        }
+    }
+
+    private synchronized void store(String key, InetAddress[] addresses, long ttl) {
+        entries.put(key, new Entry(addresses, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl)));
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static Timer lookupTimer(MeterRegistry registry, String result) {
+        return Timer.builder("sslmonitor.dns.lookup")
+            .description("Latency of DNS lookups that missed the resolver cache")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static class Entry {
+        // 为null表示否定缓存
+        private final InetAddress[] addresses;
+        private final long expiresAt;
+
+        Entry(InetAddress[] addresses, long expiresAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.DomainSummary;
+import com.sslmonitor.model.Domain;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 域名列表缓存：整表从数据库加载一次后，检查结果写库、增删改域名时由调用方逐条更新，
+ * 控制器读取列表时优先走缓存，避免页面刷新和 sweep 写库争抢数据库。超过TTL后整表重新加载。
+ * 缓存中只保存列表需要的字段（DomainSummary），不含证书详情等大字段，放入后不再修改；
+ * 排好序的列表按修改次数（generation）失效后由读取方重建，读取不加锁，只有写入之间互斥。
+ * 返回的列表和对象是共享的，调用方只能读取。
+ * 缓存只服务于整表读取，不做按条目的淘汰：域名数超过 max-size 时整表缓存关闭，列表直接查询数据库，
+ * 直到某次重新加载时域名数回落到上限以内。
+ */
+@Component
+public class DomainStatusCache {
+
+    @Value("${certificate.cache.max-size:100000}")
+    private int maxSize;
+
+    @Value("${certificate.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, DomainSummary> entries = new ConcurrentHashMap<>();
+    // 缓存中是否包含全部域名，只有此时才能直接用缓存返回列表
+    private volatile boolean complete;
+    private volatile long completeSince;
+    // 每次修改加一，用于让排序快照失效、判断加载期间是否有并发写入
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DomainStatusCache(CheckMetrics metrics) {
+        MeterRegistry registry = metrics.getRegistry();
+        FunctionCounter.builder("sslmonitor.cache.requests", hits, AtomicLong::doubleValue)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("sslmonitor.cache.requests", misses, AtomicLong::doubleValue)
+            .tag("result", "miss").register(registry);
+        FunctionCounter.builder("sslmonitor.cache.evictions", evictions, AtomicLong::doubleValue).register(registry);
+        registry.gauge("sslmonitor.cache.size", this, DomainStatusCache::size);
+    }
+
+    /**
+     * 返回按 id 排序的全部域名；缓存不完整或已过期时通过 loader 从数据库重新加载
+     */
+    public List<DomainSummary> getAll(Supplier<List<DomainSummary>> loader) {
+        if (complete && !isExpired(completeSince)) {
+            hits.incrementAndGet();
+            long current = generation.get();
+            Snapshot cached = snapshot;
+            if (cached != null && cached.generation == current) {
+                return cached.domains;
+            }
+            // 先读 generation 再读条目：重建期间有写入时 generation 已经变化，这份快照不会被后续读取使用
+            List<DomainSummary> sorted = entries.values().stream()
+                .sorted(Comparator.comparing(DomainSummary::getId))
+                .toList();
+            snapshot = new Snapshot(current, sorted);
+            return sorted;
+        }
+
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        List<DomainSummary> loaded = loader.get();
+        // 超过上限时不缓存，本次结果直接返回
+        if (loaded.size() <= maxSize) {
+            synchronized (this) {
+                // 加载期间有新的写入时，不用可能过时的数据填充缓存，下次读取再加载
+                if (generation.get() == loadGeneration) {
+                    entries.clear();
+                    loaded.forEach(summary -> entries.put(summary.getId(), summary));
+                    completeSince = System.nanoTime();
+                    complete = true;
+                    generation.incrementAndGet();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public void put(Domain domain) {
+        if (domain == null || domain.getId() == null) {
+            return;
+        }
+        DomainSummary summary = DomainSummary.from(domain);
+        synchronized (this) {
+            // 缓存不完整时只让正在进行的加载作废，下次读取会重新加载
+            if (complete) {
+                entries.put(summary.getId(), summary);
+                if (entries.size() > maxSize) {
+                    evictAll();
+                }
+            }
+            generation.incrementAndGet();
+        }
+    }
+
+    public void putAll(List<Domain> domains) {
+        domains.forEach(this::put);
+    }
+
+    public synchronized void evict(Long id) {
+        entries.remove(id);
+        generation.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    // 缓存内容每次被修改都会变化，用于生成列表的 ETag
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(long cachedAt) {
+        return System.nanoTime() - cachedAt > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    // 域名数超出容量后关闭整表缓存，下次读取重新加载时再按当时的域名数决定是否缓存
+    private void evictAll() {
+        evictions.addAndGet(entries.size());
+        entries.clear();
+        complete = false;
+        snapshot = null;
+    }
+
+    // 某一 generation 下排好序的全部域名
+    private static class Snapshot {
+        private final long generation;
+        private final List<DomainSummary> domains;
+
+        Snapshot(long generation, List<DomainSummary> domains) {
+            this.generation = generation;
+            this.domains = domains;
+        }
+    }
+}
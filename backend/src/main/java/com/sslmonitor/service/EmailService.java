@@ -5,6 +5,8 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -14,8 +16,12 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -24,6 +30,8 @@ public class EmailService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final EmailTemplateRenderer templateRenderer;
+    private final CheckMetrics metrics;
     private static final int MAX_RETRIES = 1;
     private static final int RETRY_DELAY_MS = 2000; // 2 seconds
 
@@ -33,9 +41,12 @@ public class EmailService {
     @Value("${mail.notification.enabled:false}")
     private boolean mailEnabled;
 
-    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine) {
+    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine,
+                        EmailTemplateRenderer templateRenderer, CheckMetrics metrics) {
         this.mailSender = mailSender;
         this.templateEngine = templateEngine;
+        this.templateRenderer = templateRenderer;
+        this.metrics = metrics;
     }
 
     public void sendExpiryNotification(Domain domain, int daysUntilExpiry) {
@@ -62,48 +73,17 @@ public class EmailService {
                 log.info("Starting email sending process for domain {} (attempt {}/{})", 
                     domain.getDomainName(), retryCount + 1, MAX_RETRIES);
                 
-                // 创建邮件上下文
-                log.debug("Creating email context and variables...");
-                long startTime = System.currentTimeMillis();
-                Context context = new Context();
-                Map<String, Object> variables = createEmailVariables(domain, daysUntilExpiry);
-                context.setVariables(variables);
-                log.debug("Email context created in {} ms", System.currentTimeMillis() - startTime);
-
-                // 选择并处理模板
-                log.debug("Processing email template...");
-                startTime = System.currentTimeMillis();
-                String emailTemplate = daysUntilExpiry <= 7 ? "urgent-expiry-email" : "expiry-notification-email";
-                String htmlContent = templateEngine.process(emailTemplate, context);
-                log.debug("Template processed in {} ms", System.currentTimeMillis() - startTime);
-                
-                if (htmlContent == null || htmlContent.trim().isEmpty()) {
-                    throw new RuntimeException("Failed to generate email content from template: " + emailTemplate);
-                }
-
-                // 创建邮件消息
-                log.debug("Creating MIME message...");
-                startTime = System.currentTimeMillis();
-                MimeMessage message = mailSender.createMimeMessage();
-                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-                log.debug("MIME message created in {} ms", System.currentTimeMillis() - startTime);
-                
-                // 设置邮件属性
-                log.debug("Setting email properties...");
-                startTime = System.currentTimeMillis();
-                helper.setFrom(fromEmail);
-                helper.setTo(domain.getNotificationEmail());
-                String subject = createEmailSubject(domain, daysUntilExpiry);
-                helper.setSubject(subject);
-                helper.setText(htmlContent, true);
-                log.debug("Email properties set in {} ms", System.currentTimeMillis() - startTime);
+                MimeMessage message = createExpiryMessage(domain, daysUntilExpiry);
+                String subject = message.getSubject();
 
                 log.info("Attempting to send email: From={}, To={}, Subject={}", 
                     fromEmail, domain.getNotificationEmail(), subject);
 
                 // 发送邮件
-                startTime = System.currentTimeMillis();
+                long startTime = System.currentTimeMillis();
+                long sendStart = System.nanoTime();
                 mailSender.send(message);
+                metrics.recordEmailSend(sendStart);
                 log.info("Email sent successfully in {} ms", System.currentTimeMillis() - startTime);
                 
                 log.info("Successfully sent notification email for domain: {} to {}", 
@@ -140,13 +120,89 @@ public class EmailService {
         throw new RuntimeException(errorMsg, lastException);
     }
 
-    private Map<String, Object> createEmailVariables(Domain domain, int daysUntilExpiry) {
-        Map<String, Object> variables = new HashMap<>();
-        variables.put("domain", domain);
-        variables.put("daysUntilExpiry", daysUntilExpiry);
-        variables.put("expiryDate", domain.getCertificateExpiryDate());
-        variables.put("isUrgent", daysUntilExpiry <= 7);
-        return variables;
+    public boolean isEnabled() {
+        return mailEnabled && StringUtils.hasText(fromEmail);
+    }
+
+    /**
+     * 渲染单个域名的到期提醒邮件
+     */
+    public MimeMessage createExpiryMessage(Domain domain, int daysUntilExpiry) throws MessagingException {
+        // 选择模板并用预编译的片段填入域名变量
+        long startTime = System.nanoTime();
+        String emailTemplate = daysUntilExpiry <= 7
+            ? EmailTemplateRenderer.URGENT_TEMPLATE : EmailTemplateRenderer.EXPIRY_TEMPLATE;
+        String htmlContent = templateRenderer.render(emailTemplate, domain, daysUntilExpiry);
+        log.debug("Template {} rendered in {} us", emailTemplate,
+            TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+        
+        if (htmlContent == null || htmlContent.trim().isEmpty()) {
+            throw new RuntimeException("Failed to generate email content from template: " + emailTemplate);
+        }
+
+        return createMessage(domain.getNotificationEmail(), createEmailSubject(domain, daysUntilExpiry), htmlContent);
+    }
+
+    /**
+     * 把同一收件人的多条到期提醒合并成一封汇总邮件
+     */
+    public MimeMessage createDigestMessage(String recipient, List<ExpiryNotice> notices) throws MessagingException {
+        if (notices.size() == 1) {
+            ExpiryNotice notice = notices.get(0);
+            return createExpiryMessage(notice.getDomain(), notice.getDaysUntilExpiry());
+        }
+
+        List<ExpiryNotice> sorted = new ArrayList<>(notices);
+        sorted.sort(Comparator.comparingInt(ExpiryNotice::getDaysUntilExpiry));
+        Context context = new Context();
+        context.setVariable("items", sorted);
+        String htmlContent = templateEngine.process("expiry-digest-email", context);
+
+        int minDays = sorted.get(0).getDaysUntilExpiry();
+        String urgencyPrefix = minDays <= 7 ? "【紧急】" : "【提醒】";
+        String subject = String.format("%s%d个域名证书即将过期（最近剩余%d天）", urgencyPrefix, sorted.size(), minDays);
+        return createMessage(recipient, subject, htmlContent);
+    }
+
+    /**
+     * 通过同一个SMTP连接发送一批邮件，返回发送失败的邮件
+     */
+    public Set<MimeMessage> sendAll(List<MimeMessage> messages) {
+        if (messages.isEmpty()) {
+            return Set.of();
+        }
+        long sendStart = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            metrics.recordEmailSend(sendStart);
+            return Set.of();
+        } catch (MailSendException e) {
+            metrics.recordEmailSend(sendStart);
+            Set<MimeMessage> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (e.getFailedMessages().isEmpty()) {
+                failed.addAll(messages);
+            } else {
+                e.getFailedMessages().keySet().forEach(message -> failed.add((MimeMessage) message));
+            }
+            log.error("Failed to send {} of {} notification emails: {}", failed.size(), messages.size(),
+                e.getMessage());
+            return failed;
+        } catch (MailException e) {
+            log.error("Failed to send {} notification emails: {}", messages.size(), e.getMessage(), e);
+            Set<MimeMessage> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            failed.addAll(messages);
+            return failed;
+        }
+    }
+
+    private MimeMessage createMessage(String recipient, String subject, String htmlContent) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(recipient);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        return message;
     }
 
     private String createEmailSubject(Domain domain, int daysUntilExpiry) {
@@ -0,0 +1,152 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 到期提醒邮件的预编译渲染：启动时用占位值把模板渲染一次，拆成静态片段和变量槽位，
+ * 之后每封邮件只需按顺序拼接片段并填入该域名的变量，不再经过模板引擎。
+ * 模板中如果出现依赖这些变量的条件判断，占位渲染的结果就不可靠，此时应回退到模板引擎。
+ */
+@Slf4j
+@Component
+public class EmailTemplateRenderer {
+
+    public static final String EXPIRY_TEMPLATE = "expiry-notification-email";
+    public static final String URGENT_TEMPLATE = "urgent-expiry-email";
+
+    private static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_PATTERN);
+
+    // 占位值：渲染结果中不会自然出现的内容
+    private static final String DOMAIN_SENTINEL = "x-sentinel-domain-7f3a.invalid";
+    private static final LocalDateTime EXPIRY_SENTINEL = LocalDateTime.of(1901, 2, 3, 4, 5, 6);
+    private static final int DAYS_SENTINEL = -7654321;
+
+    private enum Slot { DOMAIN, EXPIRY, DAYS }
+
+    private final TemplateEngine templateEngine;
+    private final Map<String, CompiledTemplate> compiled = new HashMap<>();
+
+    public EmailTemplateRenderer(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (String template : List.of(EXPIRY_TEMPLATE, URGENT_TEMPLATE)) {
+            try {
+                CompiledTemplate compiledTemplate = compile(template);
+                if (compiledTemplate != null) {
+                    compiled.put(template, compiledTemplate);
+                    log.info("Precompiled email template {} into {} fragments",
+                        template, compiledTemplate.fragments.size());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to precompile email template {}, falling back to template engine: {}",
+                    template, e.getMessage());
+            }
+        }
+    }
+
+    public String render(String template, Domain domain, int daysUntilExpiry) {
+        CompiledTemplate compiledTemplate = compiled.get(template);
+        if (compiledTemplate == null) {
+            return templateEngine.process(template, createContext(domain, domain.getCertificateExpiryDate(), daysUntilExpiry));
+        }
+
+        String domainName = HtmlUtils.htmlEscape(domain.getDomainName());
+        String expiry = domain.getCertificateExpiryDate() != null
+            ? DATE_FORMATTER.format(domain.getCertificateExpiryDate()) : "";
+        String days = Integer.toString(daysUntilExpiry);
+
+        StringBuilder html = new StringBuilder(compiledTemplate.estimatedLength + domainName.length() * 4);
+        List<String> fragments = compiledTemplate.fragments;
+        List<Slot> slots = compiledTemplate.slots;
+        for (int i = 0; i < slots.size(); i++) {
+            html.append(fragments.get(i));
+            switch (slots.get(i)) {
+                case DOMAIN -> html.append(domainName);
+                case EXPIRY -> html.append(expiry);
+                case DAYS -> html.append(days);
+            }
+        }
+        html.append(fragments.get(fragments.size() - 1));
+        return html.toString();
+    }
+
+    // 用占位值渲染一次，再按占位值出现的位置切分；任一占位值没有出现时返回null，由模板引擎处理
+    private CompiledTemplate compile(String template) {
+        Domain sentinelDomain = new Domain();
+        sentinelDomain.setDomainName(DOMAIN_SENTINEL);
+        sentinelDomain.setCertificateExpiryDate(EXPIRY_SENTINEL);
+        String rendered = templateEngine.process(template, createContext(sentinelDomain, EXPIRY_SENTINEL, DAYS_SENTINEL));
+
+        Map<String, Slot> markers = Map.of(
+            DOMAIN_SENTINEL, Slot.DOMAIN,
+            DATE_FORMATTER.format(EXPIRY_SENTINEL), Slot.EXPIRY,
+            Integer.toString(DAYS_SENTINEL), Slot.DAYS);
+        for (String marker : markers.keySet()) {
+            if (!rendered.contains(marker)) {
+                log.warn("Email template {} does not render {}, it will not be precompiled", template, markers.get(marker));
+                return null;
+            }
+        }
+
+        List<String> fragments = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int next = -1;
+            String nextMarker = null;
+            for (String marker : markers.keySet()) {
+                int index = rendered.indexOf(marker, position);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    nextMarker = marker;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            fragments.add(rendered.substring(position, next));
+            slots.add(markers.get(nextMarker));
+            position = next + nextMarker.length();
+        }
+        fragments.add(rendered.substring(position));
+        return new CompiledTemplate(List.copyOf(fragments), List.copyOf(slots), rendered.length());
+    }
+
+    private Context createContext(Domain domain, LocalDateTime expiryDate, int daysUntilExpiry) {
+        Context context = new Context();
+        context.setVariable("domain", domain);
+        context.setVariable("daysUntilExpiry", daysUntilExpiry);
+        context.setVariable("expiryDate", expiryDate);
+        context.setVariable("isUrgent", daysUntilExpiry <= 7);
+        return context;
+    }
+
+    private static class CompiledTemplate {
+        private final List<String> fragments;
+        private final List<Slot> slots;
+        private final int estimatedLength;
+
+        CompiledTemplate(List<String> fragments, List<Slot> slots, int estimatedLength) {
+            this.fragments = fragments;
+            this.slots = slots;
+            this.estimatedLength = estimatedLength;
+        }
+    }
+}
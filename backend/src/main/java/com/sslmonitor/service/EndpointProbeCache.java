@@ -0,0 +1,146 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单轮 sweep 内按解析后的IP共享探测结果。
+ * 同一IP上用两个不同域名各握手一次，拿到的证书指纹相同时，认为该IP不按 SNI 区分证书，
+ * 之后该IP上被这张证书 SAN 覆盖的域名直接复用结果，不再握手；
+ * 一旦发现同一IP对不同域名返回了不同证书，该IP上的域名全部照常探测。
+ * 只在一轮 sweep 内有效，每轮重新建立。
+ */
+@Slf4j
+class EndpointProbeCache {
+
+    private final CertificateProber prober;
+    private final DomainResolver resolver;
+    private final CheckMetrics metrics;
+    private final Map<String, EndpointState> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger handshakes = new AtomicInteger();
+    private final AtomicInteger shared = new AtomicInteger();
+
+    EndpointProbeCache(CertificateProber prober, DomainResolver resolver, CheckMetrics metrics) {
+        this.prober = prober;
+        this.resolver = resolver;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 并行解析全部域名并按IP分组，再轮流从各组取域名排列：
+     * 每个IP的前两个域名尽早探测，同一IP的其余域名排在后面，更容易直接复用结果
+     */
+    List<Domain> orderByEndpoint(List<Domain> domains) {
+        Map<String, CompletableFuture<String>> lookups = new HashMap<>();
+        for (Domain domain : domains) {
+            lookups.computeIfAbsent(domain.getDomainName(), name -> resolver.resolveAsync(name)
+                .handle((address, ex) -> address != null ? address.getHostAddress() : name));
+        }
+
+        Map<String, List<Domain>> groups = new LinkedHashMap<>();
+        for (Domain domain : domains) {
+            String endpoint = lookups.get(domain.getDomainName()).join();
+            groups.computeIfAbsent(endpoint, key -> new ArrayList<>()).add(domain);
+        }
+
+        List<Domain> ordered = new ArrayList<>(domains.size());
+        List<Iterator<Domain>> iterators = new ArrayList<>(groups.size());
+        groups.values().forEach(group -> iterators.add(group.iterator()));
+        while (!iterators.isEmpty()) {
+            Iterator<Iterator<Domain>> it = iterators.iterator();
+            while (it.hasNext()) {
+                Iterator<Domain> group = it.next();
+                ordered.add(group.next());
+                if (!group.hasNext()) {
+                    it.remove();
+                }
+            }
+        }
+        log.info("Grouped {} domains into {} endpoints", domains.size(), groups.size());
+        return ordered;
+    }
+
+    CertificateCheckResult probe(String domainName) {
+        String endpoint;
+        try {
+            endpoint = resolver.resolve(domainName).getHostAddress();
+        } catch (UnknownHostException e) {
+            // 由探测器按正常流程返回解析失败
+            return countHandshake(prober.probe(domainName));
+        }
+
+        EndpointState state = endpoints.computeIfAbsent(endpoint, key -> new EndpointState());
+        synchronized (state) {
+            if (state.sniIndependent && state.sample.covers(domainName)) {
+                shared.incrementAndGet();
+                metrics.recordSharedProbe();
+                return state.sample.copy();
+            }
+        }
+
+        CertificateCheckResult result = countHandshake(prober.probe(domainName));
+        if (result.isAccessible() && result.getFingerprint() != null && endpoint.equals(result.getRemoteAddress())) {
+            synchronized (state) {
+                state.record(domainName, result);
+            }
+        }
+        return result;
+    }
+
+    int getHandshakes() {
+        return handshakes.get();
+    }
+
+    int getShared() {
+        return shared.get();
+    }
+
+    int getEndpoints() {
+        return endpoints.size();
+    }
+
+    private CertificateCheckResult countHandshake(CertificateCheckResult result) {
+        handshakes.incrementAndGet();
+        return result;
+    }
+
+    private static class EndpointState {
+        private CertificateCheckResult sample;
+        private String sampleName;
+        // 两个不同域名拿到了相同的证书
+        private boolean sniIndependent;
+        // 不同域名拿到了不同的证书，不再共享
+        private boolean sniDependent;
+
+        void record(String domainName, CertificateCheckResult result) {
+            if (sniDependent) {
+                return;
+            }
+            if (sample == null) {
+                sample = result;
+                sampleName = domainName;
+                return;
+            }
+            if (sample.getFingerprint().equals(result.getFingerprint())) {
+                if (!domainName.equals(sampleName)) {
+                    sniIndependent = true;
+                }
+            } else {
+                sniIndependent = false;
+                sniDependent = true;
+            }
+        }
+    }
+}
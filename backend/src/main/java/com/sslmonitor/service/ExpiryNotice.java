@@ -0,0 +1,27 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+
+/**
+ * 一条待发送的证书到期通知
+ */
+public class ExpiryNotice {
+    private final Domain domain;
+    private final int daysUntilExpiry;
+    // 发送成功后记为已通知的档位，见 NotificationPolicy
+    private final int threshold;
+
+    public ExpiryNotice(Domain domain, int daysUntilExpiry, int threshold) {
+        this.domain = domain;
+        this.daysUntilExpiry = daysUntilExpiry;
+        this.threshold = threshold;
+    }
+
+    public Domain getDomain() { return domain; }
+    public int getDaysUntilExpiry() { return daysUntilExpiry; }
+    public int getThreshold() { return threshold; }
+
+    public String getRecipient() {
+        return domain.getNotificationEmail();
+    }
+}
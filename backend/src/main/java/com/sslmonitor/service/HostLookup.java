@@ -0,0 +1,14 @@
+package com.sslmonitor.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * 实际执行的主机名查询，默认使用 JVM 解析器；
+ * 测试中可以注册一个同类型的 Bean（如 {@link StaticHostLookup}）替换
+ */
+@FunctionalInterface
+public interface HostLookup {
+
+    InetAddress[] lookup(String host) throws UnknownHostException;
+}
@@ -0,0 +1,407 @@
+package com.sslmonitor.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.security.cert.Certificate;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 SocketChannel + SSLEngine 的非阻塞探测实现。
+ * 少量选择器线程即可同时驱动大量握手；读到服务端证书后立即断开，不完成整个握手。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "certificate.prober", havingValue = "nio")
+public class NioCertificateProber extends AbstractCertificateProber {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    @Value("${certificate.prober.nio.selector-threads:2}")
+    private int selectorThreads;
+
+    private HandshakeLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+
+    public NioCertificateProber(ProberSslContext sslContext, DomainResolver resolver, CheckMetrics metrics) {
+        super(sslContext, resolver, metrics);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        loops = new HandshakeLoop[Math.max(1, selectorThreads)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new HandshakeLoop(Selector.open());
+            Thread thread = new Thread(loops[i], "cert-nio-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+        log.info("NIO certificate prober started with {} selector threads", loops.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (HandshakeLoop loop : loops) {
+            loop.close();
+        }
+    }
+
+    @Override
+    public CertificateCheckResult probe(String domainName, int port, int timeoutMs) {
+        return probeAsync(domainName, port, timeoutMs).join();
+    }
+
+    // STARTTLS 需要先进行明文对话，使用阻塞实现；其余情况由选择器线程驱动
+    @Override
+    public CertificateCheckResult probeEndpoint(String host, InetAddress address, int port, String startTls,
+                                                int timeoutMs) {
+        if (startTls != null) {
+            return probeBlocking(host, address, port, startTls, timeoutMs);
+        }
+        if (address == null) {
+            return probe(host, port, timeoutMs);
+        }
+        CompletableFuture<CertificateCheckResult> future = new CompletableFuture<>();
+        connect(host, new InetSocketAddress(address, port), timeoutMs, future);
+        return future.join();
+    }
+
+    @Override
+    public CompletableFuture<CertificateCheckResult> probeAsync(String domainName, int port, int timeoutMs) {
+        CompletableFuture<CertificateCheckResult> future = new CompletableFuture<>();
+        long dnsStart = System.nanoTime();
+        // 解析在解析器线程池中完成，选择器线程不会被 DNS 查询阻塞
+        resolver.resolveAsync(domainName).whenComplete((inetAddress, ex) -> {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                future.complete(failure(domainName, cause instanceof Exception e ? e : new Exception(cause)));
+                return;
+            }
+            metrics.recordPhase(CheckMetrics.PHASE_DNS, dnsStart);
+            connect(domainName, new InetSocketAddress(inetAddress, port), timeoutMs, future);
+        });
+        return future;
+    }
+
+    private void connect(String domainName, InetSocketAddress address, int timeoutMs,
+                         CompletableFuture<CertificateCheckResult> future) {
+        try {
+            SSLEngine engine = sslContext.createEngine(domainName, address.getPort());
+
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            // 非阻塞连接也可能立即完成（如本机地址），此时不会再触发 OP_CONNECT
+            boolean connected = channel.connect(address);
+
+            Probe probe = new Probe(domainName, address.getAddress().getHostAddress(), timeoutMs,
+                channel, engine, future);
+            probe.connected = connected;
+            loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)].register(probe);
+        } catch (Exception e) {
+            future.complete(failure(domainName, e));
+        }
+    }
+
+    /**
+     * 单个域名的握手状态
+     */
+    private class Probe {
+        final String domainName;
+        final String remoteAddress;
+        final int timeoutMs;
+        final SocketChannel channel;
+        final SSLEngine engine;
+        final CompletableFuture<CertificateCheckResult> future;
+        final ByteBuffer netIn;
+        final ByteBuffer netOut;
+        final ByteBuffer appIn;
+        long connectDeadline;
+        long readDeadline;
+        boolean connected;
+        // 各阶段的起始时间，用于记录连接和握手耗时
+        long connectStartNanos = System.nanoTime();
+        long handshakeStartNanos;
+
+        Probe(String domainName, String remoteAddress, int timeoutMs, SocketChannel channel, SSLEngine engine,
+              CompletableFuture<CertificateCheckResult> future) {
+            this.domainName = domainName;
+            this.remoteAddress = remoteAddress;
+            this.timeoutMs = timeoutMs;
+            this.channel = channel;
+            this.engine = engine;
+            this.future = future;
+            SSLSession session = engine.getSession();
+            this.netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+            this.netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+            this.netOut.flip();
+            this.appIn = ByteBuffer.allocate(session.getApplicationBufferSize());
+        }
+
+        long deadline() {
+            return connected ? readDeadline : connectDeadline;
+        }
+
+        void complete(CertificateCheckResult result) {
+            metrics.recordPhase(CheckMetrics.PHASE_HANDSHAKE, handshakeStartNanos);
+            closeQuietly();
+            result.setRemoteAddress(remoteAddress);
+            future.complete(result);
+        }
+
+        void fail(Exception e) {
+            closeQuietly();
+            future.complete(failure(domainName, e));
+        }
+
+        void closeQuietly() {
+            sslContext.discard(engine.getHandshakeSession());
+            sslContext.discard(engine.getSession());
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 探测结束后关闭连接，失败可以忽略
+            }
+        }
+    }
+
+    /**
+     * 一个选择器线程，负责若干并发握手
+     */
+    private class HandshakeLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<Probe> pending = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+
+        HandshakeLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        // 循环已关闭或已退出时直接失败，不能让调用方一直等待
+        void register(Probe probe) {
+            if (!running) {
+                probe.fail(new IOException("Prober is shutting down"));
+                return;
+            }
+            pending.add(probe);
+            selector.wakeup();
+            // 与关闭并发时循环可能已经清理过 pending，这里再清理一次
+            if (!running) {
+                failPending();
+            }
+        }
+
+        private void failPending() {
+            Probe probe;
+            while ((probe = pending.poll()) != null) {
+                probe.fail(new IOException("Prober is shutting down"));
+            }
+        }
+
+        void close() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(nearestDeadline());
+                    registerPending();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+
+                    expireTimedOut();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                log.error("NIO certificate prober loop terminated", e);
+            } finally {
+                running = false;
+                for (SelectionKey key : selector.keys()) {
+                    ((Probe) key.attachment()).fail(new IOException("Prober is shutting down"));
+                }
+                failPending();
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // 关闭时忽略
+                }
+            }
+        }
+
+        private void registerPending() {
+            Probe probe;
+            while ((probe = pending.poll()) != null) {
+                SelectionKey key = null;
+                try {
+                    long now = System.currentTimeMillis();
+                    probe.connectDeadline = now + probe.timeoutMs;
+                    if (probe.connected) {
+                        key = probe.channel.register(selector, 0, probe);
+                        startHandshake(key, probe);
+                    } else {
+                        probe.channel.register(selector, SelectionKey.OP_CONNECT, probe);
+                    }
+                } catch (Exception e) {
+                    if (key != null) {
+                        key.cancel();
+                    }
+                    probe.fail(e);
+                }
+            }
+        }
+
+        private long nearestDeadline() {
+            long now = System.currentTimeMillis();
+            long nearest = 1000;
+            for (SelectionKey key : selector.keys()) {
+                Probe probe = (Probe) key.attachment();
+                nearest = Math.min(nearest, Math.max(1, probe.deadline() - now));
+            }
+            return nearest;
+        }
+
+        private void expireTimedOut() {
+            long now = System.currentTimeMillis();
+            for (SelectionKey key : selector.keys()) {
+                Probe probe = (Probe) key.attachment();
+                if (key.isValid() && now >= probe.deadline()) {
+                    key.cancel();
+                    probe.fail(new SocketTimeoutException(probe.connected ? "Read timed out" : "Connect timed out"));
+                }
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            Probe probe = (Probe) key.attachment();
+            try {
+                if (key.isConnectable()) {
+                    if (probe.channel.finishConnect()) {
+                        startHandshake(key, probe);
+                    }
+                    return;
+                } else if (key.isReadable()) {
+                    if (probe.channel.read(probe.netIn) < 0) {
+                        throw new SSLException("Connection closed by peer during handshake");
+                    }
+                } else if (key.isWritable()) {
+                    probe.channel.write(probe.netOut);
+                    if (probe.netOut.hasRemaining()) {
+                        return;
+                    }
+                }
+                advance(key, probe);
+            } catch (Exception e) {
+                key.cancel();
+                probe.fail(e);
+            }
+        }
+
+        // 连接建立后开始握手，由 advance 设置需要等待的读写事件
+        private void startHandshake(SelectionKey key, Probe probe) throws IOException {
+            probe.connected = true;
+            metrics.recordPhase(CheckMetrics.PHASE_CONNECT, probe.connectStartNanos);
+            probe.handshakeStartNanos = System.nanoTime();
+            probe.readDeadline = System.currentTimeMillis() + probe.timeoutMs;
+            probe.engine.beginHandshake();
+            advance(key, probe);
+        }
+
+        /**
+         * 推进握手，直到需要等待网络读写，或者已经拿到服务端证书
+         */
+        private void advance(SelectionKey key, Probe probe) throws IOException {
+            SSLEngine engine = probe.engine;
+            while (true) {
+                Certificate[] certs = peerCertificates(engine);
+                if (certs != null) {
+                    key.cancel();
+                    probe.complete(buildResult(probe.domainName, certs));
+                    return;
+                }
+
+                SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+                switch (status) {
+                    case NEED_WRAP -> {
+                        probe.netOut.compact();
+                        SSLEngineResult result = engine.wrap(EMPTY, probe.netOut);
+                        probe.netOut.flip();
+                        if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                            throw new SSLException("SSL engine closed during handshake");
+                        }
+                        probe.channel.write(probe.netOut);
+                        if (probe.netOut.hasRemaining()) {
+                            key.interestOps(SelectionKey.OP_WRITE);
+                            return;
+                        }
+                    }
+                    case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                        probe.netIn.flip();
+                        SSLEngineResult result = engine.unwrap(probe.netIn, probe.appIn);
+                        probe.netIn.compact();
+                        if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                            key.interestOps(SelectionKey.OP_READ);
+                            return;
+                        }
+                        if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                            throw new SSLException("Connection closed by peer during handshake");
+                        }
+                        probe.appIn.clear();
+                    }
+                    case NEED_TASK -> {
+                        Runnable task;
+                        while ((task = engine.getDelegatedTask()) != null) {
+                            task.run();
+                        }
+                    }
+                    default -> {
+                        // 握手已完成但未能提前拿到证书时，从正式会话中读取
+                        key.cancel();
+                        probe.complete(buildResult(probe.domainName, engine.getSession().getPeerCertificates()));
+                        return;
+                    }
+                }
+            }
+        }
+
+        private Certificate[] peerCertificates(SSLEngine engine) {
+            SSLSession session = engine.getHandshakeSession();
+            if (session == null) {
+                return null;
+            }
+            try {
+                return session.getPeerCertificates();
+            } catch (SSLPeerUnverifiedException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 到期通知发送管道：有界队列 + 独立发送线程。
+ * 发送线程每次取出一批通知，按收件人合并为汇总邮件，并通过同一个SMTP连接发送整批邮件。
+ * 只有发送成功的通知才写回已通知的档位；队列已满被丢弃或发送失败的通知不记录，下一次检查时重新入队。
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    @Value("${certificate.notification.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // 取到第一条通知后再等待这么久，收集同一批要合并的通知
+    @Value("${certificate.notification.coalesce-window-ms:2000}")
+    private long coalesceWindowMs;
+
+    @Value("${certificate.notification.max-batch-size:200}")
+    private int maxBatchSize;
+
+    private final EmailService emailService;
+    private final CheckMetrics metrics;
+    private final DomainBatchWriter domainBatchWriter;
+    private BlockingQueue<ExpiryNotice> queue;
+    // 已入队尚未处理完的域名，避免发送结果写回之前同一域名重复入队
+    private final Set<Long> pendingDomains = ConcurrentHashMap.newKeySet();
+    private Thread worker;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalSendNanos = new AtomicLong();
+    private volatile long lastSendNanos;
+
+    public NotificationDispatcher(EmailService emailService, CheckMetrics metrics,
+                                  DomainBatchWriter domainBatchWriter) {
+        this.emailService = emailService;
+        this.metrics = metrics;
+        this.domainBatchWriter = domainBatchWriter;
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        MeterRegistry registry = metrics.getRegistry();
+        registry.gauge("sslmonitor.notification.queue.depth", queue, BlockingQueue::size);
+        FunctionCounter.builder("sslmonitor.notification.sent", sent, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.notification.failed", failed, AtomicLong::doubleValue).register(registry);
+        FunctionCounter.builder("sslmonitor.notification.dropped", dropped, AtomicLong::doubleValue).register(registry);
+        worker = new Thread(this::runLoop, "notification-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    /**
+     * 加入发送队列，不阻塞调用方；队列已满时丢弃并计数。threshold 为发送成功后记录的通知档位
+     */
+    public boolean enqueue(Domain domain, int daysUntilExpiry, int threshold) {
+        if (!StringUtils.hasText(domain.getNotificationEmail()) || !pendingDomains.add(domain.getId())) {
+            return false;
+        }
+        if (!queue.offer(new ExpiryNotice(domain, daysUntilExpiry, threshold))) {
+            pendingDomains.remove(domain.getId());
+            dropped.incrementAndGet();
+            log.warn("Notification queue is full, dropping notification for domain: {}", domain.getDomainName());
+            return false;
+        }
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        long batchCount = batches.get();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("enqueued", enqueued.get());
+        stats.put("dropped", dropped.get());
+        stats.put("sent", sent.get());
+        stats.put("failed", failed.get());
+        stats.put("batches", batchCount);
+        stats.put("lastSendMs", TimeUnit.NANOSECONDS.toMillis(lastSendNanos));
+        stats.put("avgSendMs", batchCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalSendNanos.get() / batchCount));
+        return stats;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ExpiryNotice first = queue.take();
+                List<ExpiryNotice> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    ExpiryNotice next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                try {
+                    dispatch(batch);
+                } finally {
+                    batch.forEach(notice -> pendingDomains.remove(notice.getDomain().getId()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Unexpected error in notification dispatcher", e);
+            }
+        }
+    }
+
+    private void dispatch(List<ExpiryNotice> batch) {
+        if (!emailService.isEnabled()) {
+            log.info("Email notifications are disabled. Skipping {} notifications", batch.size());
+            return;
+        }
+
+        // 同一收件人的多条通知合并为一封邮件；同一域名在一批内只保留最新的一条
+        Map<String, Map<String, ExpiryNotice>> byRecipient = new LinkedHashMap<>();
+        for (ExpiryNotice notice : batch) {
+            byRecipient.computeIfAbsent(notice.getRecipient(), key -> new LinkedHashMap<>())
+                .put(notice.getDomain().getDomainName(), notice);
+        }
+
+        List<MimeMessage> messages = new ArrayList<>(byRecipient.size());
+        Map<MimeMessage, Collection<ExpiryNotice>> noticesByMessage = new IdentityHashMap<>();
+        for (Map.Entry<String, Map<String, ExpiryNotice>> entry : byRecipient.entrySet()) {
+            try {
+                MimeMessage message = emailService.createDigestMessage(entry.getKey(),
+                    new ArrayList<>(entry.getValue().values()));
+                messages.add(message);
+                noticesByMessage.put(message, entry.getValue().values());
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Failed to build notification email for {}", entry.getKey(), e);
+            }
+        }
+
+        long start = System.nanoTime();
+        Set<MimeMessage> failedMessages = emailService.sendAll(messages);
+        int failedCount = failedMessages.size();
+        long elapsed = System.nanoTime() - start;
+        lastSendNanos = elapsed;
+        totalSendNanos.addAndGet(elapsed);
+        batches.incrementAndGet();
+        sent.addAndGet(messages.size() - failedCount);
+        failed.addAndGet(failedCount);
+        log.info("Sent {} notification emails for {} domains in {} ms ({} failed)",
+            messages.size() - failedCount, batch.size(), TimeUnit.NANOSECONDS.toMillis(elapsed), failedCount);
+
+        List<ExpiryNotice> delivered = new ArrayList<>(batch.size());
+        for (MimeMessage message : messages) {
+            if (!failedMessages.contains(message)) {
+                delivered.addAll(noticesByMessage.get(message));
+            }
+        }
+        try {
+            domainBatchWriter.markNotified(delivered);
+        } catch (Exception e) {
+            log.error("Failed to record {} sent notifications", delivered.size(), e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * 到期通知去重：只在域名进入新的剩余天数档位（如 30/14/7/3/1 天）或超过冷却时间后才再次通知。
+ * 状态保存在 Domain 上，判断时不需要额外查询；邮件真正发出后才由 NotificationDispatcher 记下已通知的档位，
+ * 入队失败或发送失败的通知在下一次检查时会再次判定为需要通知。
+ */
+@Component
+public class NotificationPolicy {
+
+    @Value("${certificate.notification.thresholds:30,14,7,3,1}")
+    private int[] thresholds;
+
+    @Value("${certificate.notification.cooldown-hours:72}")
+    private long cooldownHours;
+
+    @PostConstruct
+    public void init() {
+        // 从大到小排列，末尾补一个0档表示已过期
+        thresholds = Arrays.stream(thresholds).boxed()
+            .sorted((a, b) -> b - a)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        if (thresholds.length == 0 || thresholds[thresholds.length - 1] > 0) {
+            thresholds = Arrays.copyOf(thresholds, thresholds.length + 1);
+        }
+    }
+
+    public int getMaxThreshold() {
+        return thresholds[0];
+    }
+
+    /**
+     * 本次检查结果是否表明证书已续期（剩余天数超过最大档位），此时应清除已通知状态
+     */
+    public boolean isRenewed(Domain domain) {
+        if (domain.getCertificateExpiryDate() == null || domain.getLastChecked() == null) {
+            return false;
+        }
+        return ChronoUnit.DAYS.between(domain.getLastChecked(), domain.getCertificateExpiryDate()) > getMaxThreshold();
+    }
+
+    /**
+     * 判断是否需要通知，需要时返回本次通知所在的档位，否则返回 null。
+     * 不修改已通知状态，只在证书已续期时清除
+     */
+    public Integer dueThreshold(Domain domain, long daysUntilExpiry, LocalDateTime now) {
+        if (daysUntilExpiry > getMaxThreshold()) {
+            // 证书已续期，清除通知状态
+            domain.setLastNotifiedThreshold(null);
+            domain.setLastNotifiedAt(null);
+            return null;
+        }
+
+        int threshold = thresholdFor(daysUntilExpiry);
+        Integer lastThreshold = domain.getLastNotifiedThreshold();
+        LocalDateTime lastNotifiedAt = domain.getLastNotifiedAt();
+        boolean crossedNewThreshold = lastThreshold == null || threshold < lastThreshold;
+        boolean cooledDown = lastNotifiedAt == null || lastNotifiedAt.plusHours(cooldownHours).isBefore(now);
+        return crossedNewThreshold || cooledDown ? threshold : null;
+    }
+
+    // 剩余天数所在的档位：不小于剩余天数的最小阈值
+    private int thresholdFor(long daysUntilExpiry) {
+        int threshold = thresholds[0];
+        for (int candidate : thresholds) {
+            if (daysUntilExpiry <= candidate) {
+                threshold = candidate;
+            }
+        }
+        return threshold;
+    }
+}
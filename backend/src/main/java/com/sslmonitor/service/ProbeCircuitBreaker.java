@@ -0,0 +1,288 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 长期无法访问的域名和IP的熔断：连续失败达到阈值后熔断（OPEN），按指数退避暂停探测；
+ * 退避结束后放行一次短超时的试探（HALF_OPEN），成功则恢复（CLOSED），失败则继续退避。
+ * 域名的熔断状态保存在 domains 表中，重启后仍然有效；IP的熔断状态只保存在内存中。
+ * 域名只统计拿不到证书的失败，证书过期等能连上的错误不会触发熔断。
+ * IP只统计连接失败和超时，并且要有多个不同域名失败才熔断，避免共享IP上一个坏的虚拟主机拖累其他域名；
+ * IP熔断也只影响本身已经在失败的域名，状态正常的域名照常检查。手动检查不受熔断限制。
+ */
+@Slf4j
+@Component
+public class ProbeCircuitBreaker {
+
+    public static final String CLOSED = "CLOSED";
+    public static final String OPEN = "OPEN";
+    public static final String HALF_OPEN = "HALF_OPEN";
+
+    public enum Admission { ALLOW, TRIAL, SKIP }
+
+    private static final Duration TRIAL_STALE_AFTER = Duration.ofMinutes(10);
+    private static final Set<String> CONNECT_FAILURE_CLASSES = Set.of(
+        CheckMetrics.FAILURE_CONNECT_REFUSED, CheckMetrics.FAILURE_NO_ROUTE, CheckMetrics.FAILURE_SOCKET_TIMEOUT);
+
+    @Value("${certificate.circuit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${certificate.circuit.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${certificate.circuit.ip-failure-threshold:5}")
+    private int ipFailureThreshold;
+
+    // IP熔断至少需要这么多个不同域名的连接失败
+    @Value("${certificate.circuit.ip-min-domains:3}")
+    private int ipMinDomains;
+
+    @Value("${certificate.circuit.base-backoff-minutes:60}")
+    private long baseBackoffMinutes;
+
+    @Value("${certificate.circuit.max-backoff-minutes:10080}")
+    private long maxBackoffMinutes;
+
+    @Value("${certificate.circuit.trial-timeout-ms:3000}")
+    private int trialTimeoutMs;
+
+    private final DomainResolver resolver;
+    private final Map<String, IpState> ipStates = new ConcurrentHashMap<>();
+    private final Counter skipped;
+    private final Counter trials;
+    private final Counter savedSeconds;
+    private final Timer failedProbeTimer;
+
+    public ProbeCircuitBreaker(DomainResolver resolver, CheckMetrics metrics) {
+        this.resolver = resolver;
+        MeterRegistry registry = metrics.getRegistry();
+        this.skipped = Counter.builder("sslmonitor.circuit.skipped")
+            .description("Scheduled checks skipped because the domain or its IP circuit is open")
+            .register(registry);
+        this.trials = Counter.builder("sslmonitor.circuit.trials")
+            .description("Half-open trial probes")
+            .register(registry);
+        // 每次跳过按失败探测的平均耗时估算节省的时间
+        this.savedSeconds = Counter.builder("sslmonitor.circuit.saved.seconds")
+            .description("Estimated probe time saved by skipping open circuits")
+            .register(registry);
+        this.failedProbeTimer = Timer.builder("sslmonitor.circuit.failed.probe")
+            .description("Duration of probes that could not reach the target")
+            .register(registry);
+        registry.gauge("sslmonitor.circuit.open.ips", ipStates, states -> states.values().stream()
+            .filter(state -> state.isOpen(LocalDateTime.now())).count());
+    }
+
+    /**
+     * 计划内检查前调用：决定正常探测、短超时试探还是跳过
+     */
+    public Admission admit(Domain domain) {
+        if (!enabled) {
+            return Admission.ALLOW;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Admission admission = admitDomain(domain, now);
+        if (admission == Admission.SKIP) {
+            return skip();
+        }
+        if (isHealthy(domain)) {
+            return admission;
+        }
+
+        IpState ipState = ipState(domain.getDomainName(), false);
+        if (ipState != null) {
+            synchronized (ipState) {
+                if (ipState.isOpen(now)) {
+                    return skip();
+                }
+                if (ipState.openUntil != null) {
+                    // 退避结束后同一时间只放行一个试探
+                    if (ipState.isTrialInFlight(now)) {
+                        return skip();
+                    }
+                    ipState.trialStartedAt = now;
+                    admission = Admission.TRIAL;
+                }
+            }
+        }
+
+        if (admission == Admission.TRIAL) {
+            trials.increment();
+            domain.setCircuitState(HALF_OPEN);
+        }
+        return admission;
+    }
+
+    /**
+     * 被跳过的域名推迟到熔断结束后再检查，返回 nextCheckAt 是否有变化
+     */
+    public boolean postpone(Domain domain) {
+        LocalDateTime until = domain.getCircuitOpenUntil();
+        IpState ipState = isHealthy(domain) ? null : ipState(domain.getDomainName(), false);
+        if (ipState != null && ipState.openUntil != null && (until == null || ipState.openUntil.isAfter(until))) {
+            until = ipState.openUntil;
+        }
+        if (until != null && (domain.getNextCheckAt() == null || domain.getNextCheckAt().isBefore(until))) {
+            domain.setNextCheckAt(until);
+            return true;
+        }
+        return false;
+    }
+
+    public int getTrialTimeoutMs() {
+        return trialTimeoutMs;
+    }
+
+    /**
+     * 记录一次探测结果并更新熔断状态；需在 consecutiveFailures 和 nextCheckAt 更新之后调用，
+     * 熔断时把下一次检查推迟到熔断结束
+     */
+    public void record(Domain domain, CertificateCheckResult result, long probeNanos) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        IpState ipState = result.getRemoteAddress() != null
+            ? ipStates.computeIfAbsent(result.getRemoteAddress(), key -> new IpState())
+            : ipState(domain.getDomainName(), true);
+
+        // 能建立连接就说明IP是通的，即使握手失败也清除IP的失败计数
+        if (ipState != null && !isConnectFailure(result)) {
+            synchronized (ipState) {
+                ipState.reset();
+            }
+        }
+
+        if (!result.isUnreachable()) {
+            if (!CLOSED.equals(domain.getCircuitState()) && domain.getCircuitState() != null) {
+                log.info("Circuit closed for domain {}", domain.getDomainName());
+            }
+            domain.setCircuitState(CLOSED);
+            domain.setCircuitOpenUntil(null);
+            return;
+        }
+
+        failedProbeTimer.record(probeNanos, TimeUnit.NANOSECONDS);
+        int failures = domain.getConsecutiveFailures();
+        if (HALF_OPEN.equals(domain.getCircuitState()) || failures >= failureThreshold) {
+            LocalDateTime openUntil = now.plus(backoff(failures - failureThreshold));
+            domain.setCircuitState(OPEN);
+            domain.setCircuitOpenUntil(openUntil);
+            if (domain.getNextCheckAt() == null || domain.getNextCheckAt().isBefore(openUntil)) {
+                domain.setNextCheckAt(openUntil);
+            }
+            log.info("Circuit open for domain {} after {} consecutive failures, next probe at {}",
+                domain.getDomainName(), failures, openUntil);
+        }
+
+        if (ipState != null && isConnectFailure(result)) {
+            synchronized (ipState) {
+                ipState.trialStartedAt = null;
+                ipState.failures++;
+                if (ipState.failingDomains.size() < ipMinDomains) {
+                    ipState.failingDomains.add(domain.getDomainName());
+                }
+                if (ipState.openUntil != null
+                    || (ipState.failures >= ipFailureThreshold && ipState.failingDomains.size() >= ipMinDomains)) {
+                    ipState.openUntil = now.plus(backoff(ipState.failures - ipFailureThreshold));
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("trackedIps", ipStates.size());
+        stats.put("openIps", ipStates.values().stream().filter(state -> state.isOpen(now)).count());
+        stats.put("skipped", (long) skipped.count());
+        stats.put("trials", (long) trials.count());
+        stats.put("savedSeconds", savedSeconds.count());
+        return stats;
+    }
+
+    // 自身没有失败记录的域名不受IP熔断影响
+    private static boolean isHealthy(Domain domain) {
+        return domain.getConsecutiveFailures() == 0
+            && (domain.getCircuitState() == null || CLOSED.equals(domain.getCircuitState()));
+    }
+
+    // 只有连不上（拒绝连接、无路由、超时）才算IP的问题，握手失败、没有证书等是单个虚拟主机的问题
+    private static boolean isConnectFailure(CertificateCheckResult result) {
+        return result.isUnreachable() && CONNECT_FAILURE_CLASSES.contains(result.getErrorClass());
+    }
+
+    private Admission admitDomain(Domain domain, LocalDateTime now) {
+        String state = domain.getCircuitState();
+        if (OPEN.equals(state)) {
+            LocalDateTime openUntil = domain.getCircuitOpenUntil();
+            return openUntil != null && now.isBefore(openUntil) ? Admission.SKIP : Admission.TRIAL;
+        }
+        // 试探过程中重启，状态停在 HALF_OPEN，重新试探
+        return HALF_OPEN.equals(state) ? Admission.TRIAL : Admission.ALLOW;
+    }
+
+    private Admission skip() {
+        skipped.increment();
+        if (failedProbeTimer.count() > 0) {
+            savedSeconds.increment(failedProbeTimer.mean(TimeUnit.SECONDS));
+        }
+        return Admission.SKIP;
+    }
+
+    // 解析失败时只按域名熔断
+    private IpState ipState(String domainName, boolean create) {
+        try {
+            String address = resolver.resolve(domainName).getHostAddress();
+            return create ? ipStates.computeIfAbsent(address, key -> new IpState()) : ipStates.get(address);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private Duration backoff(int step) {
+        int exponent = Math.min(Math.max(step, 0), 16);
+        return Duration.ofMinutes(Math.min(baseBackoffMinutes << exponent, maxBackoffMinutes));
+    }
+
+    private static class IpState {
+        private int failures;
+        // 最多记录 ip-min-domains 个失败的域名，只用来判断是否达到域名数要求
+        private final Set<String> failingDomains = new HashSet<>();
+        private LocalDateTime openUntil;
+        private LocalDateTime trialStartedAt;
+
+        boolean isOpen(LocalDateTime now) {
+            return openUntil != null && now.isBefore(openUntil);
+        }
+
+        // 试探没有回报结果（如检查中途异常）时，过一段时间允许再次试探
+        boolean isTrialInFlight(LocalDateTime now) {
+            return trialStartedAt != null && now.isBefore(trialStartedAt.plus(TRIAL_STALE_AFTER));
+        }
+
+        void reset() {
+            failures = 0;
+            failingDomains.clear();
+            openUntil = null;
+            trialStartedAt = null;
+        }
+    }
+}
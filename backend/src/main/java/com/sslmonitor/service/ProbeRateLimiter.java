@@ -0,0 +1,69 @@
+package com.sslmonitor.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限速：限制每秒发起的探测数量，允许少量突发。
+ * 每秒速率配置为0时不限速。
+ */
+@Slf4j
+@Component
+public class ProbeRateLimiter {
+
+    @Value("${certificate.sweep.rate-limit.probes-per-second:0}")
+    private double probesPerSecond;
+
+    @Value("${certificate.sweep.rate-limit.burst:10}")
+    private int burst;
+
+    private long intervalNanos;
+    private double storedPermits;
+    private long lastRefillNanos;
+
+    @PostConstruct
+    public void init() {
+        if (probesPerSecond > 0) {
+            intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / probesPerSecond);
+            storedPermits = Math.max(burst, 1);
+            lastRefillNanos = System.nanoTime();
+            log.info("Probe rate limited to {} per second (burst {})", probesPerSecond, Math.max(burst, 1));
+        }
+    }
+
+    public boolean isEnabled() {
+        return probesPerSecond > 0;
+    }
+
+    /**
+     * 获取一个令牌，桶空时阻塞到下一个令牌可用
+     */
+    public void acquire() throws InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // 预占一个令牌并返回需要等待的时间；令牌可以透支，由等待时间偿还
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        if (now > lastRefillNanos) {
+            storedPermits = Math.min(Math.max(burst, 1),
+                storedPermits + (double) (now - lastRefillNanos) / intervalNanos);
+            lastRefillNanos = now;
+        }
+        storedPermits -= 1;
+        if (storedPermits >= 0) {
+            return 0;
+        }
+        return (long) (-storedPermits * intervalNanos);
+    }
+}
@@ -0,0 +1,123 @@
+package com.sslmonitor.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 所有探测共用的 SSLContext：启动时创建一次，协议与加密套件可通过配置调整。
+ * 探测不复用 TLS 会话：恢复的会话返回的是缓存中的旧证书，证书更换后会继续报告旧的到期时间，
+ * 同一主机的不同地址和端口之间也会互相串用。会话缓存压到最小，每次探测结束后再使会话失效。
+ */
+@Slf4j
+@Component
+public class ProberSslContext {
+
+    @Value("${certificate.prober.tls.protocols:TLSv1.2,TLSv1.3}")
+    private String[] protocols;
+
+    // 为空时使用 JSSE 默认套件
+    @Value("${certificate.prober.tls.cipher-suites:}")
+    private String[] cipherSuites;
+
+    // JSSE 中 0 表示不限制，只能设为最小的正数
+    private static final int SESSION_CACHE_SIZE = 1;
+    private static final int SESSION_TIMEOUT_SECONDS = 1;
+
+    private SSLContext sslContext;
+    private SSLSocketFactory socketFactory;
+    private String[] enabledProtocols;
+    private String[] enabledCipherSuites;
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        sslContext = createTrustAllSSLContext();
+        socketFactory = sslContext.getSocketFactory();
+
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(SESSION_CACHE_SIZE);
+        sessionContext.setSessionTimeout(SESSION_TIMEOUT_SECONDS);
+
+        SSLParameters supported = sslContext.getSupportedSSLParameters();
+        enabledProtocols = retainSupported(protocols, supported.getProtocols());
+        enabledCipherSuites = retainSupported(cipherSuites, supported.getCipherSuites());
+
+        log.info("Prober SSL context initialized: protocols={}, cipher suites={}",
+            Arrays.toString(enabledProtocols),
+            enabledCipherSuites.length == 0 ? "default" : enabledCipherSuites.length);
+    }
+
+    public SSLSocket createSocket(Socket socket, String host, int port) throws IOException {
+        SSLSocket sslSocket = (SSLSocket) socketFactory.createSocket(socket, host, port, true);
+        sslSocket.setEnabledProtocols(enabledProtocols);
+        if (enabledCipherSuites.length > 0) {
+            sslSocket.setEnabledCipherSuites(enabledCipherSuites);
+        }
+        return sslSocket;
+    }
+
+    public SSLEngine createEngine(String host, int port) {
+        SSLEngine engine = sslContext.createSSLEngine(host, port);
+        engine.setUseClientMode(true);
+        engine.setEnabledProtocols(enabledProtocols);
+        if (enabledCipherSuites.length > 0) {
+            engine.setEnabledCipherSuites(enabledCipherSuites);
+        }
+        return engine;
+    }
+
+    /**
+     * 探测结束后调用，把会话移出缓存，下一次探测一定重新完整握手
+     */
+    public void discard(SSLSession session) {
+        if (session != null) {
+            session.invalidate();
+        }
+    }
+
+    private String[] retainSupported(String[] configured, String[] supported) {
+        List<String> supportedList = Arrays.asList(supported);
+        return Arrays.stream(configured)
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .filter(name -> {
+                if (!supportedList.contains(name)) {
+                    log.warn("Ignoring unsupported TLS setting for prober: {}", name);
+                    return false;
+                }
+                return true;
+            })
+            .toArray(String[]::new);
+    }
+
+    private SSLContext createTrustAllSSLContext() throws GeneralSecurityException {
+        SSLContext context = SSLContext.getInstance("TLS");
+        TrustManager[] trustAllCerts = new TrustManager[]{
+            new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+                public void checkClientTrusted(X509Certificate[] certs, String authType) {}
+                public void checkServerTrusted(X509Certificate[] certs, String authType) {}
+            }
+        };
+        context.init(null, trustAllCerts, new SecureRandom());
+        return context;
+    }
+}
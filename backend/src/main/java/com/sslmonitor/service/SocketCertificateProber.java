@@ -0,0 +1,24 @@
+package com.sslmonitor.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+
+/**
+ * 基于阻塞 Socket/SSLSocket 的探测实现（默认）
+ */
+@Component
+@ConditionalOnProperty(name = "certificate.prober", havingValue = "socket", matchIfMissing = true)
+public class SocketCertificateProber extends AbstractCertificateProber {
+
+    public SocketCertificateProber(ProberSslContext sslContext, DomainResolver resolver, CheckMetrics metrics) {
+        super(sslContext, resolver, metrics);
+    }
+
+    @Override
+    public CertificateCheckResult probeEndpoint(String host, InetAddress address, int port, String startTls,
+                                                int timeoutMs) {
+        return probeBlocking(host, address, port, startTls, timeoutMs);
+    }
+}
@@ -0,0 +1,46 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.repository.DomainRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 均匀分散调度：每个域名在检查周期内有一个固定的时间槽（域名哈希 + 每周期的抖动），
+ * 避免所有域名在整点同时探测。时间槽在检查完成后由 CheckIntervalPolicy 写入 nextCheckAt，
+ * 每次轮询只按索引取出时间槽已到的域名。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "certificate.schedule.mode", havingValue = "spread")
+public class SpreadCheckScheduler {
+
+    private final DomainRepository domainRepository;
+    private final CertificateService certificateService;
+
+    @Value("${certificate.schedule.spread.batch-size:500}")
+    private int batchSize;
+
+    public SpreadCheckScheduler(DomainRepository domainRepository, CertificateService certificateService) {
+        this.domainRepository = domainRepository;
+        this.certificateService = certificateService;
+    }
+
+    @Scheduled(fixedDelayString = "${certificate.schedule.poll-interval-ms:60000}")
+    public void checkScheduledSlots() {
+        LocalDateTime now = LocalDateTime.now();
+        // 引擎忙时本次不检查，到期的域名留在库里，下次轮询再取
+        List<Domain> due = domainRepository.findDueForCheck(now, PageRequest.of(0, batchSize));
+        if (!due.isEmpty()) {
+            log.info("Checking {} domains whose time slot is due", due.size());
+            certificateService.sweepDomains(due);
+        }
+    }
+}
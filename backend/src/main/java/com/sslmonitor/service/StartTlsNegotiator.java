@@ -0,0 +1,97 @@
+package com.sslmonitor.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 在明文连接上完成 STARTTLS 协商，之后即可在同一连接上开始 TLS 握手。
+ * 只读取协商所需的最少应答，不做认证。
+ */
+final class StartTlsNegotiator {
+
+    static final String SMTP = "smtp";
+    static final String IMAP = "imap";
+    static final String POP3 = "pop3";
+
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    private StartTlsNegotiator() {
+    }
+
+    static void negotiate(Socket socket, String protocol) throws IOException {
+        // 逐字节读取，避免缓冲读走后续 TLS 握手的数据
+        InputStream in = socket.getInputStream();
+        OutputStream out = socket.getOutputStream();
+        switch (protocol) {
+            case SMTP -> {
+                expectSmtp(in, "220");
+                send(out, "EHLO ssl-monitor");
+                expectSmtp(in, "250");
+                send(out, "STARTTLS");
+                expectSmtp(in, "220");
+            }
+            case IMAP -> {
+                expect(in, "* OK");
+                send(out, "a1 STARTTLS");
+                // 跳过未标记的应答，直到本命令的结果
+                String line;
+                do {
+                    line = readLine(in);
+                } while (line.startsWith("*"));
+                if (!line.startsWith("a1 OK")) {
+                    throw new ProtocolException("IMAP STARTTLS rejected: " + line);
+                }
+            }
+            case POP3 -> {
+                expect(in, "+OK");
+                send(out, "STLS");
+                expect(in, "+OK");
+            }
+            default -> throw new IllegalArgumentException("Unsupported STARTTLS protocol: " + protocol);
+        }
+    }
+
+    // SMTP 多行应答以 "250-" 续行，"250 " 结束
+    private static void expectSmtp(InputStream in, String code) throws IOException {
+        String line;
+        do {
+            line = readLine(in);
+            if (!line.startsWith(code)) {
+                throw new ProtocolException("Unexpected SMTP reply, expected " + code + ": " + line);
+            }
+        } while (line.length() > 3 && line.charAt(3) == '-');
+    }
+
+    private static void expect(InputStream in, String prefix) throws IOException {
+        String line = readLine(in);
+        if (!line.startsWith(prefix)) {
+            throw new ProtocolException("Unexpected reply, expected " + prefix + ": " + line);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new ProtocolException("Connection closed during STARTTLS negotiation");
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new ProtocolException("STARTTLS reply line too long");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private static void send(OutputStream out, String command) throws IOException {
+        out.write((command + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
@@ -0,0 +1,28 @@
+package com.sslmonitor.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 固定映射的本地解析器，不访问 DNS，供测试和基准测试使用
+ */
+public class StaticHostLookup implements HostLookup {
+
+    private final Map<String, InetAddress[]> hosts = new ConcurrentHashMap<>();
+
+    public StaticHostLookup add(String host, InetAddress... addresses) {
+        hosts.put(host.toLowerCase(), addresses.clone());
+        return this;
+    }
+
+    @Override
+    public InetAddress[] lookup(String host) throws UnknownHostException {
+        InetAddress[] addresses = hosts.get(host.toLowerCase());
+        if (addresses == null || addresses.length == 0) {
+            throw new UnknownHostException(host);
+        }
+        return addresses.clone();
+    }
+}
@@ -0,0 +1,56 @@
+package com.sslmonitor.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 一次批量证书检查（sweep）的统计结果
+ */
+public class SweepReport {
+    private final LocalDateTime startedAt;
+    private final Duration duration;
+    private final int total;
+    private final int succeeded;
+    private final int failed;
+    // 熔断中被推迟、没有实际检查的域名数
+    private final int postponed;
+    // 各工作线程探测耗时之和（网络时间）
+    private final Duration probeTime;
+    // 批量写回数据库的耗时之和
+    private final Duration dbTime;
+
+    public SweepReport(LocalDateTime startedAt, Duration duration, int total, int succeeded, int failed,
+                       int postponed, Duration probeTime, Duration dbTime) {
+        this.startedAt = startedAt;
+        this.duration = duration;
+        this.total = total;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.postponed = postponed;
+        this.probeTime = probeTime;
+        this.dbTime = dbTime;
+    }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public Duration getDuration() { return duration; }
+    public int getTotal() { return total; }
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return failed; }
+    public int getPostponed() { return postponed; }
+    public Duration getProbeTime() { return probeTime; }
+    public Duration getDbTime() { return dbTime; }
+
+    // 每秒完成的检查数
+    public double getThroughput() {
+        long millis = Math.max(1, duration.toMillis());
+        return (succeeded + failed) * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("total=%d, succeeded=%d, failed=%d, postponed=%d, duration=%d ms, "
+                + "throughput=%.2f checks/s, probe time=%d ms, db time=%d ms",
+            total, succeeded, failed, postponed, duration.toMillis(), getThroughput(), probeTime.toMillis(),
+            dbTime.toMillis());
+    }
+}
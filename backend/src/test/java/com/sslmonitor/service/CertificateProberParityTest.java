@@ -0,0 +1,131 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.support.LoopbackTlsServer;
+import com.sslmonitor.support.ProbeTestSupport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * 阻塞 Socket 与 NIO 两种探测器对同一个本地 TLS 服务端应给出相同的结果
+ */
+class CertificateProberParityTest {
+
+    private static final String PASSWORD = "parity";
+
+    private static LoopbackTlsServer server;
+    private static DomainResolver resolver;
+    private static SocketCertificateProber socketProber;
+    private static NioCertificateProber nioProber;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        Path keyStore = LoopbackTlsServer.generateKeyStore(PASSWORD);
+        server = new LoopbackTlsServer(keyStore, PASSWORD);
+
+        CheckMetrics metrics = ProbeTestSupport.metrics();
+        resolver = ProbeTestSupport.resolver(
+            new StaticHostLookup().add("localhost", InetAddress.getLoopbackAddress()), metrics);
+        ProberSslContext sslContext = ProbeTestSupport.sslContext();
+        socketProber = new SocketCertificateProber(sslContext, resolver, metrics);
+        nioProber = new NioCertificateProber(sslContext, resolver, metrics);
+        ReflectionTestUtils.setField(nioProber, "selectorThreads", 1);
+        nioProber.init();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        nioProber.shutdown();
+        resolver.shutdown();
+        server.close();
+    }
+
+    @Test
+    void reportsTheSameCertificate() {
+        CertificateCheckResult socket = socketProber.probe("localhost", server.getPort());
+        CertificateCheckResult nio = nioProber.probe("localhost", server.getPort());
+
+        assertThat(socket.isAccessible()).isTrue();
+        assertThat(nio.isAccessible()).isTrue();
+        assertThat(nio.getExpiryDate()).isEqualTo(socket.getExpiryDate());
+        assertThat(nio.getFingerprint()).isNotBlank().isEqualTo(socket.getFingerprint());
+        assertThat(nio.getSubject()).isEqualTo(socket.getSubject());
+        assertThat(nio.getIssuer()).isEqualTo(socket.getIssuer());
+        assertThat(nio.getSerialNumber()).isEqualTo(socket.getSerialNumber());
+        assertThat(nio.getSubjectAltNames()).containsExactlyElementsOf(socket.getSubjectAltNames());
+        assertThat(nio.getChainFingerprints()).containsExactlyElementsOf(socket.getChainFingerprints());
+        assertThat(nio.getRemoteAddress()).isEqualTo(socket.getRemoteAddress());
+        assertThat(socket.covers("localhost")).isTrue();
+    }
+
+    @Test
+    void classifiesRefusedConnectionsTheSameWay() throws Exception {
+        int closedPort;
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = probe.getLocalPort();
+        }
+
+        CertificateCheckResult socket = socketProber.probe("localhost", closedPort);
+        CertificateCheckResult nio = nioProber.probe("localhost", closedPort);
+
+        assertThat(socket.isAccessible()).isFalse();
+        assertThat(nio.isAccessible()).isFalse();
+        assertThat(socket.isUnreachable()).isTrue();
+        assertThat(nio.isUnreachable()).isTrue();
+        assertThat(nio.getErrorClass()).isEqualTo(socket.getErrorClass())
+            .isEqualTo(CheckMetrics.FAILURE_CONNECT_REFUSED);
+    }
+
+    @Test
+    void classifiesUnknownHostsTheSameWay() {
+        CertificateCheckResult socket = socketProber.probe("missing.invalid", 443);
+        CertificateCheckResult nio = nioProber.probe("missing.invalid", 443);
+
+        assertThat(socket.isUnreachable()).isTrue();
+        assertThat(nio.isUnreachable()).isTrue();
+        assertThat(nio.getErrorClass()).isEqualTo(socket.getErrorClass()).isEqualTo("unknown_host");
+    }
+
+    @Test
+    void keepsTheChainOfAnExpiredCertificate() throws Exception {
+        try (LoopbackTlsServer expired = new LoopbackTlsServer(
+            LoopbackTlsServer.generateKeyStore(PASSWORD, "-2y", 30), PASSWORD)) {
+            CertificateCheckResult socket = socketProber.probe("localhost", expired.getPort());
+            CertificateCheckResult nio = nioProber.probe("localhost", expired.getPort());
+
+            for (CertificateCheckResult result : new CertificateCheckResult[] {socket, nio}) {
+                assertThat(result.isAccessible()).isFalse();
+                assertThat(result.getErrorClass()).isEqualTo("expired");
+                assertThat(result.getExpiryDate()).isNotNull();
+                assertThat(result.getFingerprint()).isNotBlank();
+                assertThat(result.getChain()).isNotEmpty();
+                assertThat(result.getSubject()).contains("CN=localhost");
+                assertThat(result.getSubjectAltNames()).contains("localhost");
+            }
+            assertThat(nio.getFingerprint()).isEqualTo(socket.getFingerprint());
+        }
+    }
+
+    @Test
+    void failsProbesQueuedAfterShutdown() throws Exception {
+        NioCertificateProber stopped = new NioCertificateProber(ProbeTestSupport.sslContext(), resolver,
+            ProbeTestSupport.metrics());
+        ReflectionTestUtils.setField(stopped, "selectorThreads", 1);
+        stopped.init();
+        stopped.shutdown();
+
+        CertificateCheckResult result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> stopped.probe("localhost", server.getPort()));
+
+        assertThat(result.isAccessible()).isFalse();
+    }
+}
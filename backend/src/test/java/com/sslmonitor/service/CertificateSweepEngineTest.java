@@ -0,0 +1,86 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.support.ProbeTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateSweepEngineTest {
+
+    private DomainResolver resolver;
+    private CertificateSweepEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StaticHostLookup lookup = new StaticHostLookup();
+        for (int i = 0; i < 5; i++) {
+            lookup.add("domain" + i + ".test", InetAddress.getByAddress(new byte[]{(byte) 192, 0, 2, (byte) i}));
+        }
+        CheckMetrics metrics = ProbeTestSupport.metrics();
+        resolver = ProbeTestSupport.resolver(lookup, metrics);
+        engine = new CertificateSweepEngine(new ProbeRateLimiter(), resolver, metrics, new DomainEventBus(metrics));
+        ReflectionTestUtils.setField(engine, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(engine, "perHostConcurrency", 1);
+        ReflectionTestUtils.setField(engine, "virtualThreads", false);
+        ReflectionTestUtils.setField(engine, "writeBatchSize", 50);
+        engine.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+        resolver.shutdown();
+    }
+
+    @Test
+    void writesResultsOfRunningChecksWhenInterrupted() throws Exception {
+        List<Domain> domains = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Domain domain = new Domain();
+            domain.setId((long) i);
+            domain.setDomainName("domain" + i + ".test");
+            domains.add(domain);
+        }
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Domain> written = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<SweepReport> report = new AtomicReference<>();
+
+        // 两个全局名额都被占住，提交线程阻塞在第三个域名上
+        Thread sweeper = new Thread(() -> report.set(engine.sweep(domains, domain -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            domain.setCertificateStatus("VALID");
+            return domain;
+        }, written::addAll)));
+        sweeper.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        sweeper.interrupt();
+        Thread.sleep(200);
+        assertThat(written).isEmpty();
+        release.countDown();
+        sweeper.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertThat(sweeper.isAlive()).isFalse();
+        assertThat(written).hasSize(2);
+        assertThat(report.get().getSucceeded()).isEqualTo(2);
+        assertThat(engine.isRunning()).isFalse();
+    }
+}
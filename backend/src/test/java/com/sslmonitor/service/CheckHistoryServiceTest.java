@@ -0,0 +1,100 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.CheckHistory;
+import com.sslmonitor.model.MaintenanceWatermark;
+import com.sslmonitor.repository.CheckHistoryRepository;
+import com.sslmonitor.repository.MaintenanceWatermarkRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({CheckHistoryService.class, DomainChangeTracker.class})
+class CheckHistoryServiceTest {
+
+    // 默认 compact-after-days=7：压缩到 8 天前（含）
+    private static final int CUTOFF_DAYS_AGO = 8;
+
+    @Autowired
+    private CheckHistoryService historyService;
+
+    @Autowired
+    private CheckHistoryRepository historyRepository;
+
+    @Autowired
+    private MaintenanceWatermarkRepository watermarkRepository;
+
+    @MockBean
+    private CheckHistoryRecorder historyRecorder;
+
+    @Test
+    void compactsEveryDayFromTheOldestRecordUpToTheCutoff() {
+        LocalDate today = LocalDate.now();
+        recordRepeatedChecks(today.minusDays(12), 3);
+        recordRepeatedChecks(today.minusDays(10), 3);
+        // 还没到压缩时间的记录保持不变
+        recordRepeatedChecks(today.minusDays(2), 3);
+
+        historyService.maintain();
+
+        assertThat(historyRepository.count()).isEqualTo(1 + 1 + 3);
+        assertThat(watermarkRepository.findById("check_history_compaction"))
+            .map(MaintenanceWatermark::getLastDay)
+            .contains(today.minusDays(CUTOFF_DAYS_AGO));
+    }
+
+    @Test
+    void resumesAfterTheWatermark() {
+        LocalDate today = LocalDate.now();
+        MaintenanceWatermark watermark = new MaintenanceWatermark();
+        watermark.setName("check_history_compaction");
+        watermark.setLastDay(today.minusDays(11));
+        watermarkRepository.save(watermark);
+        recordRepeatedChecks(today.minusDays(12), 3);
+        recordRepeatedChecks(today.minusDays(10), 3);
+
+        historyService.maintain();
+
+        // 水位之前的日子不再处理，之后错过的日子一并补上
+        assertThat(historyRepository.count()).isEqualTo(3 + 1);
+        assertThat(watermarkRepository.findById("check_history_compaction"))
+            .map(MaintenanceWatermark::getLastDay)
+            .contains(today.minusDays(CUTOFF_DAYS_AGO));
+    }
+
+    @Test
+    void keepsStateChangesWithinADay() {
+        LocalDate day = LocalDate.now().minusDays(CUTOFF_DAYS_AGO);
+        record(day, 0, "VALID");
+        record(day, 1, "VALID");
+        record(day, 2, "ERROR");
+        record(day, 3, "ERROR");
+        record(day, 4, "VALID");
+
+        historyService.maintain();
+
+        assertThat(historyRepository.findAll())
+            .extracting(CheckHistory::getStatus)
+            .containsExactlyInAnyOrder("VALID", "ERROR", "VALID");
+    }
+
+    private void recordRepeatedChecks(LocalDate day, int count) {
+        for (int hour = 0; hour < count; hour++) {
+            record(day, hour, "VALID");
+        }
+    }
+
+    private void record(LocalDate day, int hour, String status) {
+        CheckHistory history = new CheckHistory();
+        history.setDomainId(1L);
+        history.setCheckedAt(day.atTime(hour, 0));
+        history.setStatus(status);
+        historyRepository.saveAndFlush(history);
+    }
+}
@@ -0,0 +1,69 @@
+package com.sslmonitor.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DomainChangeTrackerTest {
+
+    private DomainChangeTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(10L, 7L);
+        tracker = new DomainChangeTracker(jdbcTemplate);
+    }
+
+    @Test
+    void continuesFromTheHighestStoredVersion() {
+        assertThat(tracker.committedVersion()).isEqualTo(10L);
+        assertThat(tracker.allocate()).isEqualTo(11L);
+    }
+
+    @Test
+    void committedVersionStopsBelowTheOldestUnfinishedWrite() {
+        long first = tracker.allocate();
+        long second = tracker.allocate();
+        long third = tracker.allocate();
+
+        // 较大的版本先完成时不能公布，否则客户端会跳过仍在写入的较小版本
+        tracker.release(third);
+        assertThat(tracker.committedVersion()).isEqualTo(first - 1);
+
+        tracker.release(first);
+        assertThat(tracker.committedVersion()).isEqualTo(second - 1);
+
+        tracker.release(second);
+        assertThat(tracker.committedVersion()).isEqualTo(third);
+    }
+
+    @Test
+    void transactionalVersionIsReleasedAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            long version = tracker.allocateInTransaction();
+            assertThat(tracker.committedVersion()).isEqualTo(version - 1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertThat(tracker.committedVersion()).isEqualTo(version);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void versionWithoutTransactionIsReleasedImmediately() {
+        long version = tracker.allocateInTransaction();
+        assertThat(tracker.committedVersion()).isEqualTo(version);
+    }
+}
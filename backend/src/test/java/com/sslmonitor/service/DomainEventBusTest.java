@@ -0,0 +1,111 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.support.ProbeTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainEventBusTest {
+
+    private DomainEventBus eventBus;
+    private ExecutorService sender;
+    private CountDownLatch senderBlocked;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new DomainEventBus(ProbeTestSupport.metrics());
+        ReflectionTestUtils.setField(eventBus, "subscriberBuffer", 2);
+        ReflectionTestUtils.setField(eventBus, "maxSubscribers", 1);
+        ReflectionTestUtils.setField(eventBus, "senderThreads", 1);
+        ReflectionTestUtils.setField(eventBus, "sseTimeoutMs", 60000L);
+        eventBus.init();
+
+        // 发送线程被占住，发布的事件都留在订阅者的缓冲区里
+        ExecutorService original = (ExecutorService) ReflectionTestUtils.getField(eventBus, "sender");
+        original.shutdownNow();
+        sender = Executors.newSingleThreadExecutor();
+        senderBlocked = new CountDownLatch(1);
+        sender.execute(() -> {
+            try {
+                senderBlocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ReflectionTestUtils.setField(eventBus, "sender", sender);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        senderBlocked.countDown();
+        eventBus.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void keepsOnlyTheLatestPendingEventPerDomain() {
+        eventBus.subscribe();
+
+        eventBus.publishCheck(domain(1L, "VALID"));
+        eventBus.publishCheck(domain(1L, "ERROR"));
+        eventBus.publishCheck(domain(1L, "VALID"));
+
+        assertThat(eventBus.stats())
+            .containsEntry("published", 3L)
+            .containsEntry("coalesced", 2L)
+            .containsEntry("dropped", 0L);
+    }
+
+    @Test
+    void dropsTheOldestEventWhenTheBufferIsFull() {
+        eventBus.subscribe();
+
+        eventBus.publishCheck(domain(1L, "VALID"));
+        eventBus.publishCheck(domain(2L, "VALID"));
+        eventBus.publishCheck(domain(3L, "VALID"));
+
+        assertThat(eventBus.stats())
+            .containsEntry("coalesced", 0L)
+            .containsEntry("dropped", 1L);
+    }
+
+    @Test
+    void closesSubscribersStuckInASend() {
+        ReflectionTestUtils.setField(eventBus, "sendTimeoutMs", 1000L);
+        eventBus.subscribe();
+        Set<?> subscribers = (Set<?>) ReflectionTestUtils.getField(eventBus, "subscribers");
+        ReflectionTestUtils.setField(subscribers.iterator().next(), "sendStartedAt",
+            System.currentTimeMillis() - 5000);
+
+        eventBus.heartbeat();
+
+        assertThat(eventBus.stats())
+            .containsEntry("subscribers", 0)
+            .containsEntry("timedOut", 1L);
+    }
+
+    @Test
+    void skipsPublishingWithoutSubscribers() {
+        eventBus.publishCheck(domain(1L, "VALID"));
+
+        assertThat(eventBus.stats()).containsEntry("published", 0L);
+    }
+
+    private static Domain domain(Long id, String status) {
+        Domain domain = new Domain();
+        domain.setId(id);
+        domain.setDomainName("domain" + id + ".test");
+        domain.setCertificateStatus(status);
+        return domain;
+    }
+}
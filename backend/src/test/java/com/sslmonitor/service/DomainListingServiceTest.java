@@ -0,0 +1,65 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.DomainPage;
+import com.sslmonitor.dto.DomainSummary;
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.repository.DomainRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({DomainListingService.class, DomainChangeTracker.class})
+class DomainListingServiceTest {
+
+    @Autowired
+    private DomainListingService listingService;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Test
+    void listsDomainsWithoutExpiryLastWhenSortingByExpiry() {
+        LocalDateTime now = LocalDateTime.now();
+        save("late.test", now.plusDays(60));
+        save("never-a.test", null);
+        save("soon.test", now.plusDays(5));
+        save("never-b.test", null);
+        save("middle.test", now.plusDays(20));
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            DomainPage page = listingService.list(null, null, null, null, DomainListingService.SORT_EXPIRY, cursor, 2);
+            page.getItems().stream().map(DomainSummary::getDomainName).forEach(names::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(names).containsExactly("soon.test", "middle.test", "late.test", "never-a.test", "never-b.test");
+    }
+
+    @Test
+    void leavesDomainsWithoutExpiryOutOfDaysFilters() {
+        LocalDateTime now = LocalDateTime.now();
+        save("soon.test", now.plusDays(5));
+        save("never.test", null);
+
+        DomainPage page = listingService.list(null, null, 30, null, DomainListingService.SORT_EXPIRY, null, 10);
+
+        assertThat(page.getItems()).extracting(DomainSummary::getDomainName).containsExactly("soon.test");
+    }
+
+    private void save(String name, LocalDateTime expiry) {
+        Domain domain = new Domain();
+        domain.setDomainName(name);
+        domain.setCertificateExpiryDate(expiry);
+        domainRepository.save(domain);
+    }
+}
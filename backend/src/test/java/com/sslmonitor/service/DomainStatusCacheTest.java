@@ -0,0 +1,67 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.dto.DomainSummary;
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.support.ProbeTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainStatusCacheTest {
+
+    private DomainStatusCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new DomainStatusCache(ProbeTestSupport.metrics());
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+    }
+
+    @Test
+    void servesUpdatedSummariesFromTheCache() {
+        cache.getAll(() -> load(summary(1L, "VALID"), summary(2L, "VALID")));
+
+        Domain checked = new Domain();
+        checked.setId(2L);
+        checked.setDomainName("domain2.test");
+        checked.setCertificateStatus("ERROR");
+        checked.setCertificateDetails("x".repeat(2048));
+        cache.put(checked);
+
+        List<DomainSummary> domains = cache.getAll(() -> load());
+        assertThat(loads).hasValue(1);
+        assertThat(domains).extracting(DomainSummary::getCertificateStatus).containsExactly("VALID", "ERROR");
+    }
+
+    @Test
+    void stopsCachingPastTheLimit() {
+        cache.getAll(() -> load(summary(1L, "VALID"), summary(2L, "VALID")));
+
+        Domain added = new Domain();
+        added.setId(3L);
+        added.setDomainName("domain3.test");
+        cache.put(added);
+
+        assertThat(cache.size()).isZero();
+        cache.getAll(() -> load(summary(1L, "VALID"), summary(2L, "VALID"), summary(3L, "VALID")));
+        cache.getAll(() -> load(summary(1L, "VALID"), summary(2L, "VALID"), summary(3L, "VALID")));
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats()).containsEntry("evictions", 3L);
+    }
+
+    private List<DomainSummary> load(DomainSummary... summaries) {
+        loads.incrementAndGet();
+        return List.of(summaries);
+    }
+
+    private static DomainSummary summary(Long id, String status) {
+        return new DomainSummary(id, "domain" + id + ".test", null, status, null, null, true, null);
+    }
+}
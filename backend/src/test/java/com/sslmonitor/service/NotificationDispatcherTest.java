@@ -0,0 +1,126 @@
+package com.sslmonitor.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.support.ProbeTestSupport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 通过进程内的 SMTP 服务端（GreenMail）验证通知的合并、批量发送和已通知状态的写回
+ */
+class NotificationDispatcherTest {
+
+    private GreenMail smtp;
+    private JavaMailSenderImpl mailSender;
+    private DomainBatchWriter batchWriter;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        smtp.start();
+
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtp.getSmtp().getPort());
+        sender.setDefaultEncoding("UTF-8");
+        mailSender = spy(sender);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(templateEngine);
+        renderer.init();
+
+        CheckMetrics metrics = ProbeTestSupport.metrics();
+        EmailService emailService = new EmailService(mailSender, templateEngine, renderer, metrics);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "monitor@example.com");
+        ReflectionTestUtils.setField(emailService, "mailEnabled", true);
+
+        batchWriter = mock(DomainBatchWriter.class);
+        dispatcher = new NotificationDispatcher(emailService, metrics, batchWriter);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "coalesceWindowMs", 500L);
+        ReflectionTestUtils.setField(dispatcher, "maxBatchSize", 50);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        smtp.stop();
+    }
+
+    @Test
+    void sendsOneDigestPerRecipientInASingleBatch() throws Exception {
+        dispatcher.enqueue(domain(1L, "a.test", "ops@example.com"), 20, 30);
+        dispatcher.enqueue(domain(2L, "b.test", "ops@example.com"), 5, 7);
+        dispatcher.enqueue(domain(3L, "c.test", "dev@example.com"), 12, 14);
+
+        ArgumentCaptor<List<ExpiryNotice>> notified = noticesCaptor();
+        InOrder order = inOrder(mailSender, batchWriter);
+        order.verify(mailSender, timeout(5000)).send(any(MimeMessage[].class));
+        order.verify(batchWriter, timeout(5000)).markNotified(notified.capture());
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received).extracting(MimeMessage::getSubject)
+            .anySatisfy(subject -> assertThat(subject).contains("2个域名"))
+            .anySatisfy(subject -> assertThat(subject).contains("c.test"));
+        assertThat(notified.getValue()).extracting(notice -> notice.getDomain().getDomainName())
+            .containsExactlyInAnyOrder("a.test", "b.test", "c.test");
+        assertThat(dispatcher.stats()).containsEntry("sent", 2L).containsEntry("batches", 1L);
+    }
+
+    @Test
+    void recordsNothingWhenTheServerIsDown() {
+        smtp.stop();
+
+        dispatcher.enqueue(domain(1L, "a.test", "ops@example.com"), 20, 30);
+
+        ArgumentCaptor<List<ExpiryNotice>> notified = noticesCaptor();
+        verify(batchWriter, timeout(15000)).markNotified(notified.capture());
+        assertThat(notified.getValue()).isEmpty();
+        assertThat(dispatcher.stats()).containsEntry("sent", 0L).containsEntry("failed", 1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<ExpiryNotice>> noticesCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static Domain domain(Long id, String name, String email) {
+        Domain domain = new Domain();
+        domain.setId(id);
+        domain.setDomainName(name);
+        domain.setNotificationEmail(email);
+        return domain;
+    }
+}
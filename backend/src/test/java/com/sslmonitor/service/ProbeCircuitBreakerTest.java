@@ -0,0 +1,136 @@
+package com.sslmonitor.service;
+
+import com.sslmonitor.model.Domain;
+import com.sslmonitor.support.ProbeTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProbeCircuitBreakerTest {
+
+    private static final String SHARED_IP = "192.0.2.10";
+
+    private DomainResolver resolver;
+    private ProbeCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InetAddress shared = InetAddress.getByAddress(new byte[]{(byte) 192, 0, 2, 10});
+        StaticHostLookup lookup = new StaticHostLookup();
+        for (String name : new String[]{"a.test", "b.test", "c.test", "healthy.test"}) {
+            lookup.add(name, shared);
+        }
+        CheckMetrics metrics = ProbeTestSupport.metrics();
+        resolver = ProbeTestSupport.resolver(lookup, metrics);
+        breaker = new ProbeCircuitBreaker(resolver, metrics);
+        ReflectionTestUtils.setField(breaker, "enabled", true);
+        ReflectionTestUtils.setField(breaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(breaker, "ipFailureThreshold", 3);
+        ReflectionTestUtils.setField(breaker, "ipMinDomains", 3);
+        ReflectionTestUtils.setField(breaker, "baseBackoffMinutes", 60L);
+        ReflectionTestUtils.setField(breaker, "maxBackoffMinutes", 10080L);
+        ReflectionTestUtils.setField(breaker, "trialTimeoutMs", 3000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resolver.shutdown();
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndPostponesTheNextCheck() {
+        Domain domain = failingDomain("a.test", 3);
+
+        breaker.record(domain, unreachable(CheckMetrics.FAILURE_CONNECT_REFUSED), 0);
+
+        assertThat(domain.getCircuitState()).isEqualTo(ProbeCircuitBreaker.OPEN);
+        assertThat(domain.getCircuitOpenUntil()).isAfter(LocalDateTime.now().plusMinutes(59));
+        assertThat(domain.getNextCheckAt()).isEqualTo(domain.getCircuitOpenUntil());
+        assertThat(breaker.admit(domain)).isEqualTo(ProbeCircuitBreaker.Admission.SKIP);
+    }
+
+    @Test
+    void expiredBackoffAdmitsAHalfOpenTrialThatClosesOnSuccess() {
+        Domain domain = failingDomain("a.test", 5);
+        domain.setCircuitState(ProbeCircuitBreaker.OPEN);
+        domain.setCircuitOpenUntil(LocalDateTime.now().minusMinutes(1));
+
+        assertThat(breaker.admit(domain)).isEqualTo(ProbeCircuitBreaker.Admission.TRIAL);
+        assertThat(domain.getCircuitState()).isEqualTo(ProbeCircuitBreaker.HALF_OPEN);
+
+        breaker.record(domain, reachable(), 0);
+
+        assertThat(domain.getCircuitState()).isEqualTo(ProbeCircuitBreaker.CLOSED);
+        assertThat(domain.getCircuitOpenUntil()).isNull();
+    }
+
+    @Test
+    void failedTrialReopensImmediately() {
+        Domain domain = failingDomain("a.test", 1);
+        domain.setCircuitState(ProbeCircuitBreaker.HALF_OPEN);
+
+        breaker.record(domain, unreachable(CheckMetrics.FAILURE_SOCKET_TIMEOUT), 0);
+
+        assertThat(domain.getCircuitState()).isEqualTo(ProbeCircuitBreaker.OPEN);
+    }
+
+    @Test
+    void openIpSkipsFailingDomainsButNotHealthyOnes() {
+        recordIpFailures(CheckMetrics.FAILURE_CONNECT_REFUSED);
+
+        assertThat(breaker.admit(failingDomain("a.test", 1))).isEqualTo(ProbeCircuitBreaker.Admission.SKIP);
+        assertThat(breaker.admit(failingDomain("healthy.test", 0)))
+            .isEqualTo(ProbeCircuitBreaker.Admission.ALLOW);
+    }
+
+    @Test
+    void handshakeFailuresDoNotOpenTheIp() {
+        recordIpFailures("ssl_handshake");
+
+        assertThat(breaker.admit(failingDomain("a.test", 1))).isEqualTo(ProbeCircuitBreaker.Admission.ALLOW);
+    }
+
+    @Test
+    void oneFailingDomainDoesNotOpenASharedIp() {
+        for (int i = 0; i < 5; i++) {
+            breaker.record(failingDomain("a.test", 1), unreachable(CheckMetrics.FAILURE_CONNECT_REFUSED), 0);
+        }
+
+        assertThat(breaker.admit(failingDomain("b.test", 1))).isEqualTo(ProbeCircuitBreaker.Admission.ALLOW);
+    }
+
+    // 三个不同域名在同一IP上各失败一次，达到IP阈值和域名数要求
+    private void recordIpFailures(String errorClass) {
+        for (String name : new String[]{"a.test", "b.test", "c.test"}) {
+            breaker.record(failingDomain(name, 1), unreachable(errorClass), 0);
+        }
+    }
+
+    private static Domain failingDomain(String name, int failures) {
+        Domain domain = new Domain();
+        domain.setDomainName(name);
+        domain.setConsecutiveFailures(failures);
+        return domain;
+    }
+
+    private static CertificateCheckResult unreachable(String errorClass) {
+        CertificateCheckResult result = new CertificateCheckResult();
+        result.setUnreachable(true);
+        result.setErrorClass(errorClass);
+        result.setRemoteAddress(SHARED_IP);
+        return result;
+    }
+
+    private static CertificateCheckResult reachable() {
+        CertificateCheckResult result = new CertificateCheckResult();
+        result.setAccessible(true);
+        result.setRemoteAddress(SHARED_IP);
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sslmonitor.support;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 本地回环 TLS 服务端：完成握手后等待客户端关闭连接。
+ * 测试用它比较不同探测器的结果，基准测试用它隔离网络延迟，只测握手和解析开销。
+ */
+public final class LoopbackTlsServer implements AutoCloseable {
+
+    private final SSLServerSocket serverSocket;
+    private final ExecutorService handlers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "loopback-tls-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LoopbackTlsServer(Path keyStorePath, String password) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keyStorePath)) {
+            keyStore.load(in, password.toCharArray());
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, password.toCharArray());
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), null, null);
+
+        serverSocket = (SSLServerSocket) context.getServerSocketFactory()
+            .createServerSocket(0, 512, InetAddress.getLoopbackAddress());
+        handlers.execute(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 用 JDK 自带的 keytool 生成 CN=localhost 的自签名证书，别名为 server
+     */
+    public static Path generateKeyStore(String password) throws IOException, InterruptedException {
+        return generateKeyStore(password, "+0d", 365);
+    }
+
+    /**
+     * 生成指定生效时间（keytool -startdate 格式，如 -2y）和有效天数的证书，用于过期、尚未生效的场景
+     */
+    public static Path generateKeyStore(String password, String startDate, int validityDays)
+        throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("sslmonitor-tls");
+        Path keyStore = dir.resolve("server.p12");
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+        Process process = new ProcessBuilder(keytool, "-genkeypair",
+            "-alias", "server", "-keyalg", "RSA", "-keysize", "2048",
+            "-startdate", startDate, "-validity", String.valueOf(validityDays),
+            "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+            "-storetype", "PKCS12", "-keystore", keyStore.toString(),
+            "-storepass", password, "-keypass", password)
+            .redirectErrorStream(true)
+            .start();
+        String output = new String(process.getInputStream().readAllBytes());
+        if (process.waitFor() != 0) {
+            throw new IOException("keytool failed: " + output);
+        }
+        keyStore.toFile().deleteOnExit();
+        dir.toFile().deleteOnExit();
+        return keyStore;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                SSLSocket socket = (SSLSocket) serverSocket.accept();
+                handlers.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // 关闭时退出
+            }
+        }
+    }
+
+    private void serve(SSLSocket socket) {
+        try (socket) {
+            socket.startHandshake();
+            // 读到客户端关闭为止
+            while (socket.getInputStream().read() >= 0) {
+                // 丢弃
+            }
+        } catch (IOException e) {
+            // 客户端拿到证书后直接断开，忽略
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        handlers.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+package com.sslmonitor.support;
+
+import com.sslmonitor.service.CheckMetrics;
+import com.sslmonitor.service.DomainResolver;
+import com.sslmonitor.service.HostLookup;
+import com.sslmonitor.service.ProberSslContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+/**
+ * 不启动 Spring 时构造探测相关组件：手动填入 @Value 字段并调用初始化方法
+ */
+public final class ProbeTestSupport {
+
+    private ProbeTestSupport() {
+    }
+
+    public static CheckMetrics metrics() {
+        return new CheckMetrics(new SimpleMeterRegistry());
+    }
+
+    public static DomainResolver resolver(HostLookup lookup, CheckMetrics metrics) {
+        ObjectProvider<HostLookup> provider = new StaticListableBeanFactory(Map.of("hostLookup", lookup))
+            .getBeanProvider(HostLookup.class);
+        DomainResolver resolver = new DomainResolver(provider, metrics);
+        ReflectionTestUtils.setField(resolver, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(resolver, "negativeTtlSeconds", 60L);
+        ReflectionTestUtils.setField(resolver, "maxSize", 1000);
+        ReflectionTestUtils.setField(resolver, "threads", 2);
+        ReflectionTestUtils.setField(resolver, "timeoutMs", 5000L);
+        resolver.init();
+        return resolver;
+    }
+
+    public static ProberSslContext sslContext() throws Exception {
+        ProberSslContext context = new ProberSslContext();
+        ReflectionTestUtils.setField(context, "protocols", new String[]{"TLSv1.2", "TLSv1.3"});
+        ReflectionTestUtils.setField(context, "cipherSuites", new String[0]);
+        context.init();
+        return context;
+    }
+}